@@ -0,0 +1,123 @@
+package networkflow.algorithms.maxflow;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import networkflow.core.ResidualGraph;
+
+/**
+ * Class to solve many source/sink queries against one loaded graph, on a pool of worker threads.
+ * The residual graph is shared read-only, and each worker keeps its own solver and residual capacities,
+ * reset from the graph capacities for every query. The solvers keep their scratch arrays across the solves
+ * on the same graph, so past the first query of a worker only the result is allocated
+ * (the Ford-Fulkerson trace, when enabled, still builds its text).
+ * The results are handed back on the calling thread as soon as they finish, hence not in query order.
+ */
+public class BatchMaxFlowSolver implements AutoCloseable {
+    private final ResidualGraph residualGraph;
+    private final MaxFlowEngine engine;
+    private final int threads;
+    private final ExecutorService executor;
+    private final ThreadLocal<Worker> workers;
+
+    /**
+     * Result of one query, with its index in the query stream.
+     */
+    public static final class QueryResult {
+        public final long queryIndex;
+        public final int source;
+        public final int sink;
+        public final int maxFlow;
+
+        public QueryResult(long queryIndex, int source, int sink, int maxFlow) {
+            this.queryIndex = queryIndex;
+            this.source = source;
+            this.sink = sink;
+            this.maxFlow = maxFlow;
+        }
+    }
+
+    /**
+     * Solver and residual capacities of one worker thread, reused across its queries.
+     */
+    private static final class Worker {
+        final MaxFlowSolver solver;
+        final int[] residualCapacities;
+
+        Worker(MaxFlowEngine engine, ResidualGraph residualGraph) {
+            this.solver = engine.createSolver();
+            this.residualCapacities = new int[residualGraph.getArcsCount()];
+        }
+    }
+
+    public BatchMaxFlowSolver(ResidualGraph residualGraph, MaxFlowEngine engine, int threads) {
+        this.residualGraph = residualGraph;
+        this.engine = engine;
+        this.threads = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(this.threads);
+        this.workers = ThreadLocal.withInitial(() -> new Worker(this.engine, this.residualGraph));
+    }
+
+    /**
+     * Solves the queries, given as {source, sink} pairs, passing each result to the consumer as it finishes.
+     * At most twice as many queries as workers are in flight, so the query stream is read lazily.
+     * @param queries
+     * @param results
+     * @throws InterruptedException
+     */
+    public void solve(Iterator<int[]> queries, Consumer<QueryResult> results) throws InterruptedException {
+        CompletionService<QueryResult> completionService = new ExecutorCompletionService<>(this.executor);
+        int maxInFlight = 2 * this.threads, inFlight = 0;
+        long queryIndex = 0;
+
+        while (queries.hasNext() || inFlight > 0) {
+            while (inFlight < maxInFlight && queries.hasNext()) {
+                int[] query = queries.next();
+                this.validateQuery(query);
+                long index = queryIndex++;
+                completionService.submit(() -> this.solveQuery(index, query[0], query[1]));
+                inFlight++;
+            }
+            results.accept(BatchMaxFlowSolver.GetResult(completionService.take()));
+            inFlight--;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+
+    private QueryResult solveQuery(long queryIndex, int source, int sink) {
+        Worker worker = this.workers.get();
+        System.arraycopy(this.residualGraph.capacities, 0, worker.residualCapacities, 0, worker.residualCapacities.length);
+        int maxFlow = worker.solver.solve(this.residualGraph, source, sink, worker.residualCapacities);
+        return new QueryResult(queryIndex, source, sink, maxFlow);
+    }
+
+    private void validateQuery(int[] query) {
+        if (query.length != 2) {
+            throw new IllegalArgumentException("Invalid input, a query is a source and a sink node.");
+        }
+        for (int node: query) {
+            if (node < 0 || node >= this.residualGraph.verticesCount) {
+                throw new IllegalArgumentException("Invalid input, node " + node + " is not in the graph.");
+            }
+        }
+    }
+
+    private static QueryResult GetResult(Future<QueryResult> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package networkflow.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the gc profiler, reporting the allocation rate next to the timings.
+ * The optional argument is a regular expression filtering the benchmarks, eg. "MaxFlowBenchmark".
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .include(args.length > 0 ? args[0] : "networkflow.benchmarks.*")
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .warmupIterations(3)
+            .measurementIterations(5)
+            .build();
+        new Runner(options).run();
+    }
+}
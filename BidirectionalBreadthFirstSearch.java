@@ -0,0 +1,121 @@
+package networkflow.algorithms;
+
+import java.util.Arrays;
+
+import networkflow.core.ResidualGraph;
+
+/**
+ * This class implements the bidirectional BreadFirstSearch over the CSR residual graph!
+ * Two searches grow at the same time, one forward from the source and one backward from the sink,
+ * always expanding a full level of the side with the smaller frontier, until they meet.
+ * The backward search walks the arcs into a node through the paired reverse arcs of its own arcs,
+ * so no separate reverse adjacency is needed.
+ * The first meeting found while expanding a level closes a shortest path, hence it still suits Edmonds-Karp.
+ */
+public class BidirectionalBreadthFirstSearch implements PathSearch {
+    private final ResidualGraph residualGraph;
+
+    private final int[] predecessorArcs; // forward tree, the arc entering the node from the source side.
+    private final int[] successorArcs; // backward tree, the arc leaving the node towards the sink.
+    private final int[] forwardQueue;
+    private final int[] backwardQueue;
+    private final int[] forwardEpochs;
+    private final int[] backwardEpochs;
+    private int epoch;
+
+    public BidirectionalBreadthFirstSearch(ResidualGraph residualGraph) {
+        int verticesCount = residualGraph.verticesCount;
+        this.residualGraph = residualGraph;
+        this.predecessorArcs = new int[verticesCount];
+        this.successorArcs = new int[verticesCount];
+        this.forwardQueue = new int[verticesCount];
+        this.backwardQueue = new int[verticesCount];
+        this.forwardEpochs = new int[verticesCount];
+        this.backwardEpochs = new int[verticesCount];
+        this.epoch = 0;
+    }
+
+    @Override
+    public int[] getPredecessorArcs() {
+        return this.predecessorArcs;
+    }
+
+    @Override
+    public boolean search(int source, int sink, int[] residualCapacities) {
+        if (source == sink) return false;
+
+        int[] offsets = this.residualGraph.offsets, targets = this.residualGraph.targets, reverseArcs = this.residualGraph.reverseArcs;
+        this.nextEpoch();
+        int epoch = this.epoch;
+
+        int forwardHead = 0, forwardTail = 0, backwardHead = 0, backwardTail = 0;
+        this.forwardQueue[forwardTail++] = source;
+        this.forwardEpochs[source] = epoch;
+        this.backwardQueue[backwardTail++] = sink;
+        this.backwardEpochs[sink] = epoch;
+
+        while (forwardHead < forwardTail && backwardHead < backwardTail) {
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                // expanding one level of the forward search.
+                for (int levelEnd = forwardTail; forwardHead < levelEnd; forwardHead++) {
+                    int currentNode = this.forwardQueue[forwardHead];
+                    for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                        int adjacentNode = targets[arc];
+                        if (residualCapacities[arc] <= 0 || this.forwardEpochs[adjacentNode] == epoch) {
+                            continue;
+                        }
+                        this.predecessorArcs[adjacentNode] = arc;
+                        if (this.backwardEpochs[adjacentNode] == epoch) {
+                            this.joinPaths(adjacentNode, sink);
+                            return true;
+                        }
+                        this.forwardEpochs[adjacentNode] = epoch;
+                        this.forwardQueue[forwardTail++] = adjacentNode;
+                    }
+                }
+            } else {
+                // expanding one level of the backward search, over the arcs entering the current node.
+                for (int levelEnd = backwardTail; backwardHead < levelEnd; backwardHead++) {
+                    int currentNode = this.backwardQueue[backwardHead];
+                    for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                        int adjacentNode = targets[arc], inwardArc = reverseArcs[arc];
+                        if (residualCapacities[inwardArc] <= 0 || this.backwardEpochs[adjacentNode] == epoch) {
+                            continue;
+                        }
+                        this.successorArcs[adjacentNode] = inwardArc;
+                        if (this.forwardEpochs[adjacentNode] == epoch) {
+                            this.joinPaths(adjacentNode, sink);
+                            return true;
+                        }
+                        this.backwardEpochs[adjacentNode] = epoch;
+                        this.backwardQueue[backwardTail++] = adjacentNode;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Extends the predecessor arcs from the meeting node along the backward tree down to the sink.
+     * @param meetingNode
+     * @param sink
+     */
+    private void joinPaths(int meetingNode, int sink) {
+        int[] targets = this.residualGraph.targets;
+        for (int node = meetingNode; node != sink; ) {
+            int arc = this.successorArcs[node];
+            node = targets[arc];
+            this.predecessorArcs[node] = arc;
+        }
+    }
+
+    private void nextEpoch() {
+        if (++this.epoch == Integer.MAX_VALUE) {
+            Arrays.fill(this.forwardEpochs, 0);
+            Arrays.fill(this.backwardEpochs, 0);
+            this.epoch = 1;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package networkflow.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary format of the flow graph, so that a graph is parsed once and then loaded near-instantly!
+ * Layout, all little-endian ints:
+ * 1. header: magic "NFGB", version, V, E, source, sink.
+ *    The source and the sink are detected with the rule of the text input (see FlowGraph), so that a graph
+ *    gets the same ones in both formats: the sink is the first node without outward edges, and the source
+ *    the first node with the fewest inward edges, parallel edges counting once.
+ * 2. offsets[V + 1], the edges leaving node u are at offsets[u] .. offsets[u + 1] - 1.
+ * 3. targets[E], the head node of each edge.
+ * 4. capacities[E], the capacity of each edge.
+ */
+public final class BinaryGraphFormat {
+    public static final int MAGIC = 0x4247464E; // "NFGB" read as a little-endian int.
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    private static final int WINDOW_INTS = 1 << 28; // 1 GB per mapped window.
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private BinaryGraphFormat() {
+    }
+
+    /**
+     * Writes the CSR arrays of the graph to the output file, with its detected source and sink.
+     * @param outputFile
+     * @param verticesCount
+     * @param offsets
+     * @param targets
+     * @param capacities
+     * @throws IOException
+     */
+    public static void Write(Path outputFile, int verticesCount, int[] offsets, int[] targets, int[] capacities) throws IOException {
+        int edgesCount = offsets[verticesCount];
+        int sink = BinaryGraphFormat.DetectSink(verticesCount, offsets);
+        int source = BinaryGraphFormat.DetectSource(verticesCount, offsets, targets);
+        try (FileChannel channel = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(verticesCount).putInt(edgesCount).putInt(source).putInt(sink);
+            WriteInts(channel, buffer, offsets, verticesCount + 1);
+            WriteInts(channel, buffer, targets, edgesCount);
+            WriteInts(channel, buffer, capacities, edgesCount);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the file starts with the magic of the binary format.
+     * @param inputFile
+     * @return
+     * @throws IOException
+     */
+    public static boolean IsBinaryGraph(Path inputFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return false;
+            }
+            ByteBuffer magic = channel.map(FileChannel.MapMode.READ_ONLY, 0, Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads the binary graph file into the graph.
+     * @param inputFile
+     * @param graph
+     * @throws IOException
+     */
+    static void Read(Path inputFile, FlowGraph graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Invalid input, not a binary graph file.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported binary graph version: " + version);
+            }
+            int verticesCount = header.getInt(), edgesCount = header.getInt();
+            int source = header.getInt(), sink = header.getInt();
+            long expectedSize = HEADER_SIZE + 4L * (verticesCount + 1 + 2L * edgesCount);
+            if (verticesCount < 0 || edgesCount < 0 || channel.size() != expectedSize) {
+                throw new IllegalArgumentException("Invalid input, binary graph file is truncated or corrupted.");
+            }
+
+            int[] offsets = new int[verticesCount + 1];
+            int[] targets = new int[edgesCount];
+            int[] capacities = new int[edgesCount];
+            long position = HEADER_SIZE;
+            position = ReadInts(channel, position, offsets);
+            position = ReadInts(channel, position, targets);
+            ReadInts(channel, position, capacities);
+
+            graph.loadGraph(verticesCount, source, sink, offsets, targets, capacities);
+        }
+    }
+
+    /**
+     * Gets the first node without outward edges, as the text input does with the first empty line.
+     * @param verticesCount
+     * @param offsets
+     * @return
+     */
+    private static int DetectSink(int verticesCount, int[] offsets) {
+        for (int u = 0; u < verticesCount; u++) {
+            if (offsets[u] == offsets[u + 1]) {
+                return u;
+            }
+        }
+        throw new IllegalArgumentException("Invalid input, no node without outward edges to be the sink.");
+    }
+
+    /**
+     * Gets the first node with the fewest inward edges, as the text input does, the edges of a node
+     * being contiguous, so that stamping the last counted tail is enough to count parallel edges once.
+     * @param verticesCount
+     * @param offsets
+     * @param targets
+     * @return
+     */
+    private static int DetectSource(int verticesCount, int[] offsets, int[] targets) {
+        int[] inwardEdgesCounter = new int[verticesCount];
+        int[] lastInwardEdgeFrom = new int[verticesCount];
+        for (int u = 0; u < verticesCount; u++) {
+            for (int index = offsets[u]; index < offsets[u + 1]; index++) {
+                int v = targets[index];
+                if (lastInwardEdgeFrom[v] != u + 1) {
+                    lastInwardEdgeFrom[v] = u + 1;
+                    inwardEdgesCounter[v]++;
+                }
+            }
+        }
+        int source = 0;
+        for (int node = 1; node < verticesCount; node++) {
+            if (inwardEdgesCounter[node] < inwardEdgesCounter[source]) {
+                source = node;
+            }
+        }
+        return source;
+    }
+
+    /**
+     * Writes the first count ints of the array through the buffer, flushing it to the channel when full.
+     * @param channel
+     * @param buffer
+     * @param values
+     * @param count
+     * @throws IOException
+     */
+    private static void WriteInts(FileChannel channel, ByteBuffer buffer, int[] values, int count) throws IOException {
+        for (int index = 0; index < count; index++) {
+            if (buffer.remaining() < Integer.BYTES) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+            buffer.putInt(values[index]);
+        }
+    }
+
+    /**
+     * Bulk-copies the ints from the mapped file into the array, one window at a time.
+     * returns the position after the array.
+     * @param channel
+     * @param position
+     * @param values
+     * @return
+     * @throws IOException
+     */
+    private static long ReadInts(FileChannel channel, long position, int[] values) throws IOException {
+        for (int index = 0; index < values.length; ) {
+            int count = Math.min(WINDOW_INTS, values.length - index);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) count * Integer.BYTES);
+            window.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values, index, count);
+            index += count;
+            position += (long) count * Integer.BYTES;
+        }
+        return position;
+    }
+}
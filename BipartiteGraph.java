@@ -0,0 +1,30 @@
+package networkflow.core;
+
+/**
+ * Bipartite graph of a matching instance found in a flow graph, in CSR form!
+ * Left and right nodes are indexed from zero, and leftNodes/rightNodes map them back to the flow graph nodes.
+ * The right nodes adjacent to left node i are adjacentRights[offsets[i]] .. adjacentRights[offsets[i + 1] - 1].
+ */
+public class BipartiteGraph {
+    public final int verticesCount; // of the flow graph.
+    public final int[] leftNodes;
+    public final int[] rightNodes;
+    public final int[] offsets;
+    public final int[] adjacentRights;
+
+    public BipartiteGraph(int verticesCount, int[] leftNodes, int[] rightNodes, int[] offsets, int[] adjacentRights) {
+        this.verticesCount = verticesCount;
+        this.leftNodes = leftNodes;
+        this.rightNodes = rightNodes;
+        this.offsets = offsets;
+        this.adjacentRights = adjacentRights;
+    }
+
+    public int getLeftCount() {
+        return this.leftNodes.length;
+    }
+
+    public int getRightCount() {
+        return this.rightNodes.length;
+    }
+}
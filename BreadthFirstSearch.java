@@ -5,6 +5,11 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Queue;
 
+import networkflow.core.GraphAccess;
+import networkflow.core.ResidualCapacities;
+import networkflow.core.ResidualGraph;
+import networkflow.utils.FlowMetrics;
+
 /**
  * This class implements the BreadFirstSearch algorithm!
  */
@@ -45,4 +50,170 @@ public class BreadthFirstSearch {
         
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs the BFS over the arcs of the CSR residual graph which have positive residual capacity.
+     * returns true if the sink is reachable, and workspace.predecessorArcs[v] holds the arc used to reach v.
+     * The queue is a ring over the workspace array, and nothing is allocated per call.
+     * The dequeued vertices and relaxed arcs are counted locally, and added to the workspace metrics if any.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @param workspace
+     * @return
+     */
+    public static boolean Run(
+        ResidualGraph residualGraph,
+        int source,
+        int sink,
+        int[] residualCapacities,
+        BreadthFirstSearchWorkspace workspace
+    ) {
+        return BreadthFirstSearch.Run(residualGraph, source, sink, residualCapacities, 1, workspace);
+    }
+
+    /**
+     * Runs the BFS over the arcs of the CSR residual graph which have at least the minimum residual capacity,
+     * eg. the current delta of capacity scaling.
+     * returns true if the sink is reachable, and workspace.predecessorArcs[v] holds the arc used to reach v.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @param minimumCapacity
+     * @param workspace
+     * @return
+     */
+    public static boolean Run(
+        ResidualGraph residualGraph,
+        int source,
+        int sink,
+        int[] residualCapacities,
+        int minimumCapacity,
+        BreadthFirstSearchWorkspace workspace
+    ) {
+        int[] offsets = residualGraph.offsets, targets = residualGraph.targets;
+        int[] queue = workspace.queue, predecessorArcs = workspace.predecessorArcs;
+        int queueCapacity = queue.length, head = 0, tail = 0;
+        long verticesDequeued = 0, edgesRelaxed = 0;
+        boolean sinkReached = false;
+
+        workspace.nextEpoch();
+        queue[tail++] = source;
+        workspace.markVisited(source);
+
+        search:
+        while (head != tail) {
+            int currentNode = queue[head];
+            head = head + 1 == queueCapacity ? 0 : head + 1;
+            verticesDequeued++;
+
+            for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                edgesRelaxed++;
+                int adjacentNode = targets[arc];
+                if (!workspace.isVisited(adjacentNode) && residualCapacities[arc] >= minimumCapacity) {
+                    predecessorArcs[adjacentNode] = arc;
+                    if (adjacentNode == sink) {
+                        sinkReached = true;
+                        break search;
+                    }
+                    queue[tail] = adjacentNode;
+                    tail = tail + 1 == queueCapacity ? 0 : tail + 1;
+                    workspace.markVisited(adjacentNode);
+                }
+            }
+        }
+
+        FlowMetrics metrics = workspace.metrics;
+        if (metrics != null) {
+            metrics.recordSearch(verticesDequeued, edgesRelaxed);
+        }
+        return sinkReached;
+    }
+
+    /**
+     * BFS over any graph access, ie. the graph with 64-bit capacities on the heap or off-heap, the arcs being indexed by longs.
+     * The predecessor arcs are written to the given array, since the workspace ones are ints.
+     * @param graph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @param workspace
+     * @param predecessorArcs
+     * @return
+     */
+    public static boolean Run(
+        GraphAccess graph,
+        int source,
+        int sink,
+        ResidualCapacities residualCapacities,
+        BreadthFirstSearchWorkspace workspace,
+        long[] predecessorArcs
+    ) {
+        int[] queue = workspace.queue;
+        int queueCapacity = queue.length, head = 0, tail = 0;
+
+        workspace.nextEpoch();
+        queue[tail++] = source;
+        workspace.markVisited(source);
+
+        while (head != tail) {
+            int currentNode = queue[head];
+            head = head + 1 == queueCapacity ? 0 : head + 1;
+
+            long end = graph.getFirstArc(currentNode + 1);
+            for (long arc = graph.getFirstArc(currentNode); arc < end; arc++) {
+                int adjacentNode = graph.getTarget(arc);
+                if (!workspace.isVisited(adjacentNode) && residualCapacities.get(arc) > 0) {
+                    predecessorArcs[adjacentNode] = arc;
+                    if (adjacentNode == sink) {
+                        return true;
+                    }
+                    queue[tail] = adjacentNode;
+                    tail = tail + 1 == queueCapacity ? 0 : tail + 1;
+                    workspace.markVisited(adjacentNode);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Creates the path search running the BFS from the source, with its own reusable workspace.
+     * @param residualGraph
+     * @return
+     */
+    public static PathSearch CreatePathSearch(ResidualGraph residualGraph) {
+        return new WorkspacePathSearch(residualGraph);
+    }
+
+    /**
+     * Path search adapter over the BFS with a reusable workspace.
+     */
+    private static class WorkspacePathSearch implements PathSearch {
+        private final ResidualGraph residualGraph;
+        private final BreadthFirstSearchWorkspace workspace;
+
+        public WorkspacePathSearch(ResidualGraph residualGraph) {
+            this.residualGraph = residualGraph;
+            this.workspace = new BreadthFirstSearchWorkspace(residualGraph.verticesCount);
+        }
+
+        @Override
+        public boolean search(int source, int sink, int[] residualCapacities) {
+            return BreadthFirstSearch.Run(this.residualGraph, source, sink, residualCapacities, this.workspace);
+        }
+
+        @Override
+        public int[] getPredecessorArcs() {
+            return this.workspace.predecessorArcs;
+        }
+
+        @Override
+        public void setMetrics(FlowMetrics metrics) {
+            this.workspace.metrics = metrics;
+        }
+    }
+}
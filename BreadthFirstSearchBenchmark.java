@@ -0,0 +1,50 @@
+package networkflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import networkflow.algorithms.BidirectionalBreadthFirstSearch;
+import networkflow.algorithms.BreadthFirstSearch;
+import networkflow.algorithms.DirectionOptimizingBreadthFirstSearch;
+import networkflow.algorithms.PathSearch;
+import networkflow.core.ResidualGraph;
+
+/**
+ * Benchmarks one source to sink search over the initial residual graph, for each of the path searches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BreadthFirstSearchBenchmark {
+
+    @State(Scope.Thread)
+    public static class SearchState {
+        @Param({ "bfs", "bidirectional", "direction-optimizing" })
+        public String search;
+
+        public PathSearch pathSearch;
+
+        @Setup(Level.Trial)
+        public void createSearch(GraphBenchmarkState state) {
+            ResidualGraph residualGraph = state.graph.getResidualGraph();
+            switch (this.search) {
+                case "bidirectional": this.pathSearch = new BidirectionalBreadthFirstSearch(residualGraph); break;
+                case "direction-optimizing": this.pathSearch = new DirectionOptimizingBreadthFirstSearch(residualGraph); break;
+                default: this.pathSearch = BreadthFirstSearch.CreatePathSearch(residualGraph); break;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean search(GraphBenchmarkState state, SearchState searchState) {
+        return searchState.pathSearch.search(state.graph.getSource(), state.graph.getSink(), state.graph.getResidualGraph().capacities);
+    }
+}
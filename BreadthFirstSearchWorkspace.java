@@ -0,0 +1,45 @@
+package networkflow.algorithms;
+
+import java.util.Arrays;
+
+import networkflow.utils.FlowMetrics;
+
+/**
+ * Reusable scratch memory of the BFS over the CSR residual graph, so that repeated searches
+ * (eg. one per augmenting path) do not allocate anything.
+ * The visited marks are stamped with the epoch of the search, hence clearing them is O(1).
+ */
+public class BreadthFirstSearchWorkspace {
+    public final int[] predecessorArcs;
+
+    public FlowMetrics metrics; // null when the metrics are disabled.
+
+    final int[] queue;
+    final int[] visitedEpochs;
+    int epoch;
+
+    public BreadthFirstSearchWorkspace(int verticesCount) {
+        this.predecessorArcs = new int[verticesCount];
+        this.queue = new int[Math.max(verticesCount, 1)];
+        this.visitedEpochs = new int[verticesCount];
+        this.epoch = 0;
+    }
+
+    /**
+     * Starts a new search, invalidating all the visited marks of the previous one.
+     */
+    void nextEpoch() {
+        if (++this.epoch == Integer.MAX_VALUE) {
+            Arrays.fill(this.visitedEpochs, 0);
+            this.epoch = 1;
+        }
+    }
+
+    boolean isVisited(int node) {
+        return this.visitedEpochs[node] == this.epoch;
+    }
+
+    void markVisited(int node) {
+        this.visitedEpochs[node] = this.epoch;
+    }
+}
@@ -0,0 +1,70 @@
+package networkflow.algorithms.maxflow;
+
+import networkflow.algorithms.BreadthFirstSearch;
+import networkflow.algorithms.BreadthFirstSearchWorkspace;
+import networkflow.core.ResidualGraph;
+import networkflow.utils.FlowMetrics;
+
+/**
+ * The class for implementing the capacity-scaling max-flow algorithm.
+ * Each phase only augments along the shortest paths whose arcs all have a residual capacity of at least delta,
+ * starting from the highest power of two not above the largest capacity, and halving delta after each phase.
+ * A phase leaves less than 2E * delta of flow for the next ones, hence O(E log U) augmentations in total.
+ * Reference:
+ * 1. https://en.wikipedia.org/wiki/Ford%E2%80%93Fulkerson_algorithm
+ * 2. R. K. Ahuja, T. L. Magnanti, J. B. Orlin, Network Flows, section 7.3.
+ */
+public class CapacityScaling implements MaxFlowSolver {
+    private FlowMetrics metrics;
+    private BreadthFirstSearchWorkspace workspace;
+
+    @Override
+    public int solve(ResidualGraph residualGraph, int source, int sink, int[] rCapacities) {
+        if (residualGraph.verticesCount <= 0 || source == sink) return 0;
+
+        int largestCapacity = 0;
+        for (int capacity: rCapacities) {
+            largestCapacity = Math.max(largestCapacity, capacity);
+        }
+
+        int maxFlow = 0;
+
+        // the workspace is kept across the solves on graphs of the same size.
+        if (this.workspace == null || this.workspace.predecessorArcs.length != residualGraph.verticesCount) {
+            this.workspace = new BreadthFirstSearchWorkspace(residualGraph.verticesCount);
+        }
+        BreadthFirstSearchWorkspace workspace = this.workspace;
+        workspace.metrics = this.metrics;
+        int[] predecessorArcs = workspace.predecessorArcs;
+        int[] reverseArcs = residualGraph.reverseArcs, targets = residualGraph.targets;
+
+        for (int delta = Integer.highestOneBit(largestCapacity); delta > 0; delta >>= 1) {
+            while (BreadthFirstSearch.Run(residualGraph, source, sink, rCapacities, delta, workspace)) {
+
+                int pathMaxFlow = Integer.MAX_VALUE;
+                for (int u = sink; u != source; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                    pathMaxFlow = Math.min(pathMaxFlow, rCapacities[predecessorArcs[u]]);
+                }
+
+                // updating the capacities of arcs along the path and of their paired reverse arcs.
+                for (int u = sink; u != source; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                    int arc = predecessorArcs[u];
+                    rCapacities[arc] -= pathMaxFlow;
+                    rCapacities[reverseArcs[arc]] += pathMaxFlow;
+                }
+
+                if (this.metrics != null) {
+                    this.metrics.recordAugmentation(pathMaxFlow);
+                }
+                maxFlow += pathMaxFlow;
+            }
+        }
+
+        return maxFlow;
+    }
+
+    @Override
+    public void setMetrics(FlowMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,100 @@
+package networkflow.algorithms.circulation;
+
+import java.util.Arrays;
+
+import networkflow.algorithms.maxflow.MaxFlowEngine;
+import networkflow.algorithms.maxflow.MaxFlowResult;
+import networkflow.core.ResidualGraph;
+
+/**
+ * The class for implementing the circulation with demands and lower bounds, reduced to a max flow.
+ * Each edge flow is written l + g with 0 <= g <= u - l, which moves the lower bound l of every edge u -> v
+ * into the demands: d'(u) = d(u) + l and d'(v) = d(v) - l. A super source then feeds every node with d' < 0
+ * and every node with d' > 0 drains into a super sink, and a circulation exists iff the max flow saturates them all.
+ * Otherwise the nodes on the sink side of the minimum cut break Hoffman's condition.
+ * The auxiliary network is built straight into the CSR residual graph, in O(V + E) on top of the max flow.
+ * Reference:
+ * 1. J. Kleinberg, E. Tardos, Algorithm Design, section 7.7 Extensions to the Maximum-Flow Problem.
+ * 2. https://en.wikipedia.org/wiki/Circulation_problem
+ */
+public class Circulation {
+
+    private Circulation() {
+    }
+
+    /**
+     * Solves the circulation problem with the max-flow engine.
+     * @param problem
+     * @param engine
+     * @return
+     */
+    public static CirculationResult Solve(CirculationProblem problem, MaxFlowEngine engine) {
+        int verticesCount = problem.getVerticesCount(), edgesCount = problem.getEdgesCount();
+
+        long totalDemand = problem.getTotalDemand();
+        if (totalDemand != 0) {
+            boolean[] allNodes = new boolean[verticesCount];
+            Arrays.fill(allNodes, true);
+            return new CirculationResult(false, null, allNodes, new int[0], totalDemand);
+        }
+
+        long[] adjustedDemands = new long[verticesCount];
+        for (int node = 0; node < verticesCount; node++) {
+            adjustedDemands[node] = problem.getDemand(node);
+        }
+
+        // the original edges first, keeping their indices, then the super source and sink edges.
+        int superSource = verticesCount, superSink = verticesCount + 1, auxiliaryCount = edgesCount;
+        int[] fromNodes = new int[edgesCount + verticesCount];
+        int[] toNodes = new int[fromNodes.length];
+        int[] capacities = new int[fromNodes.length];
+        for (int edge = 0; edge < edgesCount; edge++) {
+            int lowerBound = problem.getLowerBound(edge);
+            fromNodes[edge] = problem.getFromNode(edge);
+            toNodes[edge] = problem.getToNode(edge);
+            capacities[edge] = problem.getCapacity(edge) - lowerBound;
+            adjustedDemands[fromNodes[edge]] += lowerBound;
+            adjustedDemands[toNodes[edge]] -= lowerBound;
+        }
+
+        long requiredFlow = 0;
+        for (int node = 0; node < verticesCount; node++) {
+            if (adjustedDemands[node] == 0) {
+                continue;
+            }
+            boolean supply = adjustedDemands[node] < 0;
+            fromNodes[auxiliaryCount] = supply ? superSource : node;
+            toNodes[auxiliaryCount] = supply ? node : superSink;
+            capacities[auxiliaryCount++] = Math.toIntExact(Math.abs(adjustedDemands[node]));
+            if (!supply) {
+                requiredFlow += adjustedDemands[node];
+            }
+        }
+        Math.toIntExact(requiredFlow); // the max flow is bounded by it, so it has to fit in an int.
+
+        ResidualGraph residualGraph = ResidualGraph.FromArrays(verticesCount + 2, fromNodes, toNodes, capacities, auxiliaryCount);
+        MaxFlowResult maxFlow = MaxFlowResult.Solve(engine.createSolver(), residualGraph, superSource, superSink);
+
+        if (maxFlow.maxFlow == requiredFlow) {
+            int[] edgeFlows = new int[edgesCount];
+            for (int edge = 0; edge < edgesCount; edge++) {
+                edgeFlows[edge] = problem.getLowerBound(edge) + maxFlow.edgeFlows[edge];
+            }
+            return new CirculationResult(true, edgeFlows, null, null, 0);
+        }
+
+        // the sink side S of the minimum cut: its demand exceeds what the cut lets in by the flow missing.
+        boolean[] violatingSet = new boolean[verticesCount];
+        for (int node = 0; node < verticesCount; node++) {
+            violatingSet[node] = !maxFlow.sourceSide[node];
+        }
+        int cutEdgesCount = 0;
+        int[] cutEdges = new int[edgesCount];
+        for (int edge = 0; edge < edgesCount; edge++) {
+            if (violatingSet[fromNodes[edge]] != violatingSet[toNodes[edge]]) {
+                cutEdges[cutEdgesCount++] = edge;
+            }
+        }
+        return new CirculationResult(false, null, violatingSet, Arrays.copyOf(cutEdges, cutEdgesCount), requiredFlow - maxFlow.maxFlow);
+    }
+}
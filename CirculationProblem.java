@@ -0,0 +1,125 @@
+package networkflow.algorithms.circulation;
+
+import java.util.Arrays;
+
+/**
+ * Circulation problem with demands and lower bounds, stored in primitive arrays!
+ * Each node has a demand, its inflow minus its outflow, a negative demand being a supply.
+ * Each edge carries a flow between its lower bound and its capacity, and edges are identified by their index in insertion order.
+ * Nodes are indexed from zero, and created as edges and demands refer to them.
+ */
+public class CirculationProblem {
+    private int verticesCount;
+    private int edgesCount;
+    private int[] demands;
+    private int[] fromNodes;
+    private int[] toNodes;
+    private int[] lowerBounds;
+    private int[] capacities;
+
+    public CirculationProblem() {
+        this(16, 16);
+    }
+
+    public CirculationProblem(int expectedVertices, int expectedEdges) {
+        this.demands = new int[Math.max(1, expectedVertices)];
+        this.fromNodes = new int[Math.max(1, expectedEdges)];
+        this.toNodes = new int[this.fromNodes.length];
+        this.lowerBounds = new int[this.fromNodes.length];
+        this.capacities = new int[this.fromNodes.length];
+    }
+
+    /**
+     * Sets the demand of the node, negative for a supply.
+     * @param node
+     * @param demand
+     */
+    public void setDemand(int node, int demand) {
+        this.createNode(node);
+        this.demands[node] = demand;
+    }
+
+    /**
+     * Adds the edge whose flow must lie in [lowerBound, capacity], returning its index.
+     * @param fromNode
+     * @param toNode
+     * @param lowerBound
+     * @param capacity
+     * @return
+     */
+    public int addEdge(int fromNode, int toNode, int lowerBound, int capacity) {
+        if (lowerBound < 0 || lowerBound > capacity) {
+            throw new IllegalArgumentException("Invalid input, the lower bound " + lowerBound + " should be between zero and the capacity " + capacity + ".");
+        } else if (fromNode == toNode) {
+            throw new IllegalArgumentException("Invalid operation, from and to nodes should be different for adding an edge.");
+        }
+        this.createNode(Math.max(fromNode, toNode));
+
+        if (this.edgesCount == this.fromNodes.length) {
+            int newLength = 2 * this.edgesCount;
+            this.fromNodes = Arrays.copyOf(this.fromNodes, newLength);
+            this.toNodes = Arrays.copyOf(this.toNodes, newLength);
+            this.lowerBounds = Arrays.copyOf(this.lowerBounds, newLength);
+            this.capacities = Arrays.copyOf(this.capacities, newLength);
+        }
+        this.fromNodes[this.edgesCount] = fromNode;
+        this.toNodes[this.edgesCount] = toNode;
+        this.lowerBounds[this.edgesCount] = lowerBound;
+        this.capacities[this.edgesCount] = capacity;
+        return this.edgesCount++;
+    }
+
+    public int getVerticesCount() {
+        return this.verticesCount;
+    }
+
+    public int getEdgesCount() {
+        return this.edgesCount;
+    }
+
+    public int getDemand(int node) {
+        return this.demands[node];
+    }
+
+    /**
+     * Gets the sum of the demands, which has to be zero for a circulation to exist.
+     * @return
+     */
+    public long getTotalDemand() {
+        long totalDemand = 0;
+        for (int node = 0; node < this.verticesCount; node++) {
+            totalDemand += this.demands[node];
+        }
+        return totalDemand;
+    }
+
+    public int getFromNode(int edge) {
+        return this.fromNodes[edge];
+    }
+
+    public int getToNode(int edge) {
+        return this.toNodes[edge];
+    }
+
+    public int getLowerBound(int edge) {
+        return this.lowerBounds[edge];
+    }
+
+    public int getCapacity(int edge) {
+        return this.capacities[edge];
+    }
+
+    /**
+     * Creates the node, and any missing one below it, since nodes are indexed by their id.
+     * @param node
+     */
+    private void createNode(int node) {
+        if (node < 0) {
+            throw new IllegalArgumentException("Invalid operation, node ids should be non-negative.");
+        }
+        if (node >= this.demands.length) {
+            this.demands = Arrays.copyOf(this.demands, Math.max(node + 1, 2 * this.demands.length));
+        }
+        this.verticesCount = Math.max(this.verticesCount, node + 1);
+    }
+}
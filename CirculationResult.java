@@ -0,0 +1,24 @@
+package networkflow.algorithms.circulation;
+
+/**
+ * Result of a circulation solve: the flow on each edge when feasible, otherwise the certificate of infeasibility.
+ * The certificate is a set S of nodes breaking Hoffman's condition d(S) <= u(in S) - l(out S), ie. whose demand
+ * exceeds the capacity of the edges entering S less the lower bounds of the edges leaving it, with the cut edges
+ * being those edges. When the demands do not sum up to zero, S is the whole node set and has no cut edges.
+ * The violation is d(S) - (u(in S) - l(out S)), the part of the demand of S which cannot be met.
+ */
+public class CirculationResult {
+    public final boolean feasible;
+    public final int[] edgeFlows;
+    public final boolean[] violatingSet;
+    public final int[] cutEdges;
+    public final long violation;
+
+    CirculationResult(boolean feasible, int[] edgeFlows, boolean[] violatingSet, int[] cutEdges, long violation) {
+        this.feasible = feasible;
+        this.edgeFlows = edgeFlows;
+        this.violatingSet = violatingSet;
+        this.cutEdges = cutEdges;
+        this.violation = violation;
+    }
+}
@@ -0,0 +1,139 @@
+package networkflow.algorithms.maxflow;
+
+import java.util.Arrays;
+
+import networkflow.core.ResidualGraph;
+
+/**
+ * The class for implementing the Dinic's max-flow algorithm.
+ * Each phase builds the BFS level graph from the source, then saturates it with a blocking flow
+ * found by DFS, where the current-arc pointers make sure every arc is advanced over once per phase.
+ * Runs in O(V^2 * E) in the worst case.
+ * Reference:
+ * 1. https://cp-algorithms.com/graph/dinic.html
+ */
+public class Dinic implements MaxFlowSolver {
+    private int[] levels;
+    private int[] queue;
+    private int[] currentArcs;
+    private int[] pathArcs;
+
+    @Override
+    public int solve(ResidualGraph residualGraph, int source, int sink, int[] residualCapacities) {
+        int verticesCount = residualGraph.verticesCount;
+        if (verticesCount <= 0 || source == sink) return 0;
+
+        // the scratch arrays are kept across the solves on graphs of the same size.
+        if (this.levels == null || this.levels.length != verticesCount) {
+            this.levels = new int[verticesCount];
+            this.queue = new int[verticesCount];
+            this.currentArcs = new int[verticesCount];
+            this.pathArcs = new int[verticesCount];
+        }
+
+        int maxFlow = 0;
+        while (this.buildLevelGraph(residualGraph, source, sink, residualCapacities)) {
+            System.arraycopy(residualGraph.offsets, 0, this.currentArcs, 0, verticesCount);
+            maxFlow += this.pushBlockingFlow(residualGraph, source, sink, residualCapacities);
+        }
+
+        return maxFlow;
+    }
+
+    /**
+     * Labels each node with its BFS distance from the source over the arcs with residual capacity.
+     * returns true if the sink got a level, ie. is reachable.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @return
+     */
+    private boolean buildLevelGraph(ResidualGraph residualGraph, int source, int sink, int[] residualCapacities) {
+        int[] offsets = residualGraph.offsets, targets = residualGraph.targets;
+        Arrays.fill(this.levels, -1);
+
+        int head = 0, tail = 0;
+        this.queue[tail++] = source;
+        this.levels[source] = 0;
+
+        while (head < tail) {
+            int currentNode = this.queue[head++];
+            for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                int adjacentNode = targets[arc];
+                if (this.levels[adjacentNode] < 0 && residualCapacities[arc] > 0) {
+                    this.levels[adjacentNode] = this.levels[currentNode] + 1;
+                    // nodes beyond the sink level can never be on a shortest path, so stopping here.
+                    if (adjacentNode == sink) {
+                        return true;
+                    }
+                    this.queue[tail++] = adjacentNode;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Finds the blocking flow of the level graph with an iterative DFS.
+     * After an augmentation, the search retreats only to the tail of the first saturated arc.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @return
+     */
+    private int pushBlockingFlow(ResidualGraph residualGraph, int source, int sink, int[] residualCapacities) {
+        int[] offsets = residualGraph.offsets, targets = residualGraph.targets, reverseArcs = residualGraph.reverseArcs;
+        int blockingFlow = 0, depth = 0, currentNode = source;
+
+        while (true) {
+            if (currentNode == sink) {
+                int bottleneckCapacity = Integer.MAX_VALUE;
+                for (int i = 0; i < depth; i++) {
+                    bottleneckCapacity = Math.min(bottleneckCapacity, residualCapacities[this.pathArcs[i]]);
+                }
+
+                int firstSaturated = -1;
+                for (int i = 0; i < depth; i++) {
+                    int arc = this.pathArcs[i];
+                    residualCapacities[arc] -= bottleneckCapacity;
+                    residualCapacities[reverseArcs[arc]] += bottleneckCapacity;
+                    if (firstSaturated < 0 && residualCapacities[arc] == 0) {
+                        firstSaturated = i;
+                    }
+                }
+                blockingFlow += bottleneckCapacity;
+
+                depth = firstSaturated;
+                currentNode = depth == 0 ? source : targets[this.pathArcs[depth - 1]];
+                continue;
+            }
+
+            // advancing along the current arc, skipping the arcs which are saturated or not in the level graph.
+            int arc = this.currentArcs[currentNode], end = offsets[currentNode + 1];
+            int nextLevel = this.levels[currentNode] + 1;
+            while (arc < end && (residualCapacities[arc] <= 0 || this.levels[targets[arc]] != nextLevel)) {
+                arc++;
+            }
+            this.currentArcs[currentNode] = arc;
+
+            if (arc < end) {
+                this.pathArcs[depth++] = arc;
+                currentNode = targets[arc];
+            } else {
+                // dead end, removing the node from the level graph and retreating.
+                this.levels[currentNode] = -1;
+                if (currentNode == source) {
+                    break;
+                }
+                int previousArc = this.pathArcs[--depth];
+                currentNode = residualGraph.getArcSource(previousArc);
+                this.currentArcs[currentNode]++;
+            }
+        }
+
+        return blockingFlow;
+    }
+}
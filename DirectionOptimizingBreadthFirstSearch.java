@@ -0,0 +1,171 @@
+package networkflow.algorithms;
+
+import java.util.Arrays;
+
+import networkflow.core.ResidualGraph;
+
+/**
+ * This class implements the direction-optimizing BreadFirstSearch over the CSR residual graph!
+ * Levels are expanded either top-down, scanning the arcs leaving the frontier, or bottom-up, where every
+ * unvisited node looks for a parent in the frontier through the arcs entering it, and stops at the first one.
+ * On dense graphs most top-down checks hit nodes already visited, so the search switches to bottom-up
+ * once the frontier holds a large share of the unexplored arcs, and back when the frontier shrinks again.
+ * Frontiers and visited marks are bitsets. Levels are still expanded in order, so paths are shortest.
+ * Reference:
+ * 1. Beamer, Asanovic, Patterson: Direction-optimizing breadth-first search.
+ */
+public class DirectionOptimizingBreadthFirstSearch implements PathSearch {
+    private static final int ALPHA = 14, BETA = 24;
+
+    private final ResidualGraph residualGraph;
+
+    private final int[] predecessorArcs;
+    private final long[] visited;
+    private long[] frontier;
+    private long[] nextFrontier;
+
+    public DirectionOptimizingBreadthFirstSearch(ResidualGraph residualGraph) {
+        int verticesCount = residualGraph.verticesCount, words = (verticesCount + 63) >>> 6;
+        this.residualGraph = residualGraph;
+        this.predecessorArcs = new int[verticesCount];
+        this.visited = new long[words];
+        this.frontier = new long[words];
+        this.nextFrontier = new long[words];
+    }
+
+    @Override
+    public int[] getPredecessorArcs() {
+        return this.predecessorArcs;
+    }
+
+    @Override
+    public boolean search(int source, int sink, int[] residualCapacities) {
+        if (source == sink) return false;
+
+        int[] offsets = this.residualGraph.offsets;
+        int verticesCount = this.residualGraph.verticesCount;
+        Arrays.fill(this.visited, 0L);
+        Arrays.fill(this.frontier, 0L);
+
+        Set(this.visited, source);
+        Set(this.frontier, source);
+        int frontierSize = 1;
+        long frontierArcs = offsets[source + 1] - offsets[source];
+        long unexploredArcs = this.residualGraph.getArcsCount() - frontierArcs;
+        boolean bottomUp = false;
+
+        while (frontierSize > 0) {
+            if (!bottomUp && frontierArcs > unexploredArcs / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < verticesCount / BETA) {
+                bottomUp = false;
+            }
+
+            Arrays.fill(this.nextFrontier, 0L);
+            int found = bottomUp
+                ? this.stepBottomUp(sink, residualCapacities)
+                : this.stepTopDown(sink, residualCapacities);
+            if (found < 0) {
+                return true;
+            }
+
+            long[] swap = this.frontier;
+            this.frontier = this.nextFrontier;
+            this.nextFrontier = swap;
+
+            // counting the new frontier and its arcs, which are not unexplored anymore.
+            frontierSize = found;
+            frontierArcs = 0;
+            for (int word = 0; word < this.frontier.length; word++) {
+                for (long bits = this.frontier[word]; bits != 0; bits &= bits - 1) {
+                    int node = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    frontierArcs += offsets[node + 1] - offsets[node];
+                }
+            }
+            unexploredArcs -= frontierArcs;
+        }
+
+        return false;
+    }
+
+    /**
+     * Expands the level from the frontier over the arcs leaving it.
+     * returns the size of the next frontier, or -1 once the sink is reached.
+     * @param sink
+     * @param residualCapacities
+     * @return
+     */
+    private int stepTopDown(int sink, int[] residualCapacities) {
+        int[] offsets = this.residualGraph.offsets, targets = this.residualGraph.targets;
+        int nextSize = 0;
+
+        for (int word = 0; word < this.frontier.length; word++) {
+            for (long bits = this.frontier[word]; bits != 0; bits &= bits - 1) {
+                int currentNode = (word << 6) + Long.numberOfTrailingZeros(bits);
+                for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                    int adjacentNode = targets[arc];
+                    if (residualCapacities[arc] > 0 && !Get(this.visited, adjacentNode)) {
+                        this.predecessorArcs[adjacentNode] = arc;
+                        if (adjacentNode == sink) {
+                            return -1;
+                        }
+                        Set(this.visited, adjacentNode);
+                        Set(this.nextFrontier, adjacentNode);
+                        nextSize++;
+                    }
+                }
+            }
+        }
+
+        return nextSize;
+    }
+
+    /**
+     * Expands the level from the unvisited nodes, each one taking the first frontier node with a
+     * residual arc into it as its parent.
+     * returns the size of the next frontier, or -1 once the sink is reached.
+     * @param sink
+     * @param residualCapacities
+     * @return
+     */
+    private int stepBottomUp(int sink, int[] residualCapacities) {
+        int[] offsets = this.residualGraph.offsets, targets = this.residualGraph.targets, reverseArcs = this.residualGraph.reverseArcs;
+        int verticesCount = this.residualGraph.verticesCount, nextSize = 0;
+
+        for (int word = 0; word < this.visited.length; word++) {
+            long unvisited = ~this.visited[word];
+            if (word == this.visited.length - 1 && (verticesCount & 63) != 0) {
+                unvisited &= (1L << (verticesCount & 63)) - 1;
+            }
+            for (long bits = unvisited; bits != 0; bits &= bits - 1) {
+                int currentNode = (word << 6) + Long.numberOfTrailingZeros(bits);
+                for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                    int inwardArc = reverseArcs[arc];
+                    if (residualCapacities[inwardArc] > 0 && Get(this.frontier, targets[arc])) {
+                        this.predecessorArcs[currentNode] = inwardArc;
+                        if (currentNode == sink) {
+                            return -1;
+                        }
+                        Set(this.nextFrontier, currentNode);
+                        nextSize++;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // marking the new level visited.
+        for (int word = 0; word < this.visited.length; word++) {
+            this.visited[word] |= this.nextFrontier[word];
+        }
+        return nextSize;
+    }
+
+    private static boolean Get(long[] bitset, int node) {
+        return (bitset[node >>> 6] & (1L << node)) != 0;
+    }
+
+    private static void Set(long[] bitset, int node) {
+        bitset[node >>> 6] |= 1L << node;
+    }
+}
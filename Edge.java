@@ -7,11 +7,17 @@ package networkflow.core;
 public class Edge {
     public int fromNode;
     public int toNode;
-    public int capacity;
+    public long capacity;
+    public long cost; // per unit of flow, zero unless given in the input.
     
-    public Edge(int source, int destination, int capacity) {
+    public Edge(int source, int destination, long capacity) {
         this.fromNode = source;
         this.toNode = destination;
         this.capacity = capacity;        
     }
+
+    public Edge(int source, int destination, long capacity, long cost) {
+        this(source, destination, capacity);
+        this.cost = cost;
+    }
 }
@@ -1,44 +1,56 @@
 package networkflow.core;
 
+import java.io.IOException;
 import java.lang.Exception;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
 import networkflow.Constants;
+import networkflow.utils.FlowMetrics;
+import networkflow.utils.TraceLog;
 
 /**
  * Flow Graph class!
- * Reference: 
+ * The graph is built in a single O(V + E) pass: nodes and edges are array-indexed,
+ * and the inward edges are counted in a primitive array to identify the source.
+ * The adjacency list and the V x V capacity matrix are only created when asked for.
+ * Graphs of the binary format are loaded straight into the residual graph, their edge list being created on first use.
+ * The residual graph has int capacities while the total capacity fits in an int, and 64-bit ones otherwise.
+ * Reference:
  * 1. https://www.javatpoint.com/collections-in-java
  * 2. https://medium.com/swlh/real-world-network-flow-cricket-elimination-problem-55a3036a5d60
  * 3. https://www.geeksforgeeks.org/ford-fulkerson-algorithm-for-maximum-flow-problem/
- * 
+ *
  */
-public class FlowGraph {    
+public class FlowGraph {
     public List<Node> vertices;
-    public List<Edge> edges;
+    public List<Edge> edges; // null until getEdges for graphs loaded from the binary format.
 
     public LinkedHashMap<Integer, LinkedHashSet<Integer>> adjacencyList;
     public int[][] capacityGraph;
-    
+    public ResidualGraph residualGraph;
+    public LongResidualGraph longResidualGraph;
+
     private int source;
     private int sink;
-    
+
+    private int linesCount;
+    private long totalCapacity; // at most Long.MAX_VALUE, larger inputs being rejected.
+    private boolean hasCosts;
+    private int[] inwardEdgesCounter;
+    private int[] lastInwardEdgeFrom; // the last node (plus one) counted as an inward edge, since parallel edges count once.
+
     public FlowGraph() {
-        this.vertices = new LinkedList<Node>();
-        this.edges = new LinkedList<Edge>();
-        this.adjacencyList = new LinkedHashMap<Integer, LinkedHashSet<Integer>>();
-        
+        this.vertices = new ArrayList<Node>();
+        this.edges = new ArrayList<Edge>();
+        this.inwardEdgesCounter = new int[16];
+        this.lastInwardEdgeFrom = new int[16];
+
         // setting default source and sink.
         this.setSink(Constants.DEFAULT_SINK);
         this.setSource(Constants.DEFAULT_SOURCE);
@@ -52,38 +64,300 @@ public class FlowGraph {
                 if (inputTokens.length > 0) {
                     for (int index = 0; index < inputTokens.length;) {
                         int adjacentNode = Integer.parseInt(inputTokens[index++]);
-                        int capacity = Integer.parseInt(inputTokens[index++]);
-                        this.addEdge(currentNode, adjacentNode, capacity); 
-                        this.updateAdjacencyList(currentNode, adjacentNode);
-                    }
-                } else { // we will get here when the input file has no adjacent node data in the line, or simply blank line.
-                    LinkedHashSet<Integer> adjacentNodesList = new LinkedHashSet<>();
-                    this.adjacencyList.put(currentNode, adjacentNodesList);                                
-                    if (this.sink < 0) { // since, no outward edges, identifying this node as sink.
-                        this.setSink(currentNode);
+                        // the capacity may be followed by the cost of the edge, as in "capacity:cost".
+                        String[] capacityAndCost = inputTokens[index++].split(":", -1);
+                        long capacity = Long.parseLong(capacityAndCost[0]);
+                        long cost = capacityAndCost.length > 1 ? Long.parseLong(capacityAndCost[1]) : 0;
+                        this.addEdge(currentNode, adjacentNode, capacity, cost);
                     }
                 }
+                this.endLine(currentNode, inputTokens.length / 2);
                 currentNode++;
             }
-            this.checkAndSaveSinkNode(currentNode);
-            this.identifySourceNode();
-            this.createCapacityGraph();
+            this.completeGraph(currentNode);
+
+            if (TraceLog.IsTraceEnabled()) {
+                TraceLog.TraceLine("Builded graph with input file data: ");
+                this.printGraph();
+            }
+        } catch (Exception e) {
+            throw new Exception("Failed to build the graph, stack trace: " + e.toString());
+        }
+    }
+
+    /**
+     * Builds the graph from the input file, memory-mapped and parsed straight from its bytes.
+     * Files in the binary graph format are detected by their magic and loaded without parsing.
+     * @param inputFile
+     * @throws Exception
+     */
+    public void buildGraph(Path inputFile) throws Exception {
+        this.buildGraph(inputFile, null);
+    }
+
+    /**
+     * Builds the graph from the input file, adding the parse and build timings to the metrics if any.
+     * @param inputFile
+     * @param metrics
+     * @throws Exception
+     */
+    public void buildGraph(Path inputFile, FlowMetrics metrics) throws Exception {
+        try {
+            long phaseStart = System.nanoTime();
+            if (BinaryGraphFormat.IsBinaryGraph(inputFile)) {
+                BinaryGraphFormat.Read(inputFile, this); // loaded ready-built, hence all parsing.
+                if (metrics != null) {
+                    metrics.recordPhase(FlowMetrics.Phase.PARSE, phaseStart);
+                }
+            } else {
+                int linesCount = MappedGraphReader.Read(inputFile, this);
+                if (metrics != null) {
+                    metrics.recordPhase(FlowMetrics.Phase.PARSE, phaseStart);
+                }
+                phaseStart = System.nanoTime();
+                this.completeGraph(linesCount);
+                if (metrics != null) {
+                    metrics.recordPhase(FlowMetrics.Phase.BUILD, phaseStart);
+                }
+            }
 
-            System.out.println("Builded graph with input file data: ");
-            this.printGraph();
+            if (TraceLog.IsTraceEnabled()) {
+                TraceLog.TraceLine("Builded graph with input file data: ");
+                this.printGraph();
+            }
         } catch (Exception e) {
             throw new Exception("Failed to build the graph, stack trace: " + e.toString());
         }
     }
 
+    /**
+     * Saves the graph in the binary graph format, to be loaded back by buildGraph without parsing.
+     * @param outputFile
+     * @throws IOException
+     */
+    public void saveBinaryGraph(Path outputFile) throws IOException {
+        if (this.hasLongCapacities() || this.hasCosts) {
+            throw new IllegalStateException("Invalid operation, the binary graph format holds int capacities only, without costs.");
+        }
+        int verticesCount = this.vertices.size(), edgesCount = this.getEdgesCount();
+        int[] offsets = new int[verticesCount + 1];
+        int[] targets = new int[edgesCount];
+        int[] capacities = new int[edgesCount];
+
+        for (int edge = 0; edge < edgesCount; edge++) {
+            offsets[this.getFromNode(edge) + 1]++;
+        }
+        for (int u = 0; u < verticesCount; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] nextEdge = Arrays.copyOf(offsets, verticesCount);
+        for (int edge = 0; edge < edgesCount; edge++) {
+            int index = nextEdge[this.getFromNode(edge)]++;
+            targets[index] = this.getToNode(edge);
+            capacities[index] = (int) this.getCapacity(edge);
+        }
+
+        // the source and the sink are detected again by the writer, with the rule of the text input they came from.
+        BinaryGraphFormat.Write(outputFile, verticesCount, offsets, targets, capacities);
+    }
+
+    /**
+     * Gets the edge list, created on first use from the residual graph for graphs loaded from the binary format.
+     * @return
+     */
+    public List<Edge> getEdges() {
+        if (this.edges == null) {
+            int edgesCount = this.residualGraph.edgeArcs.length;
+            List<Edge> edges = new ArrayList<Edge>(edgesCount);
+            for (int edge = 0; edge < edgesCount; edge++) {
+                edges.add(new Edge(this.getFromNode(edge), this.getToNode(edge), this.getCapacity(edge)));
+            }
+            this.edges = edges;
+        }
+        return this.edges;
+    }
+
+    public int getEdgesCount() {
+        return this.edges != null ? this.edges.size() : this.residualGraph.edgeArcs.length;
+    }
+
+    /**
+     * Gets the tail node of the edge, given by its index in the input order, without creating the edge list.
+     * @param edge
+     * @return
+     */
+    public int getFromNode(int edge) {
+        return this.edges != null ? this.edges.get(edge).fromNode : this.residualGraph.getArcSource(this.residualGraph.edgeArcs[edge]);
+    }
+
+    public int getToNode(int edge) {
+        return this.edges != null ? this.edges.get(edge).toNode : this.residualGraph.targets[this.residualGraph.edgeArcs[edge]];
+    }
+
+    public long getCapacity(int edge) {
+        return this.edges != null ? this.edges.get(edge).capacity : this.residualGraph.capacities[this.residualGraph.edgeArcs[edge]];
+    }
+
+    /**
+     * Gets the adjacency list, created on first use from the edges.
+     * @return
+     */
     public LinkedHashMap<Integer, LinkedHashSet<Integer>> getAdjacentList() {
+        if (this.adjacencyList == null) {
+            this.createAdjacencyList();
+        }
         return this.adjacencyList;
     }
 
+    /**
+     * Gets the V x V capacity matrix, created on first use only since it takes O(V^2) memory.
+     * Prefer getResidualGraph for anything but small graphs.
+     * @return
+     */
     public int[][] getCapacityGraph() {
+        if (this.hasLongCapacities()) {
+            throw new IllegalStateException("Invalid operation, the capacity matrix holds int capacities only.");
+        }
+        if (this.capacityGraph == null) {
+            this.createCapacityGraph();
+        }
         return this.capacityGraph;
     }
 
+    /**
+     * Gets the residual graph with int capacities, the fast path.
+     * @return
+     */
+    public ResidualGraph getResidualGraph() {
+        if (this.residualGraph == null && this.hasLongCapacities()) {
+            throw new IllegalStateException("Invalid operation, the total capacity " + this.totalCapacity + " exceeds the int range, use getLongResidualGraph.");
+        }
+        return this.residualGraph;
+    }
+
+    /**
+     * Gets the residual graph with 64-bit capacities, created on first use for graphs which fit in ints.
+     * @return
+     */
+    public LongResidualGraph getLongResidualGraph() {
+        if (this.longResidualGraph == null) {
+            this.longResidualGraph = LongResidualGraph.FromEdges(this.vertices.size(), this.getEdges());
+        }
+        return this.longResidualGraph;
+    }
+
+    /**
+     * Checks whether the total capacity exceeds the int range, in which case flows may too,
+     * and only the 64-bit residual graph is built.
+     * @return
+     */
+    public boolean hasLongCapacities() {
+        return this.totalCapacity > Integer.MAX_VALUE;
+    }
+
+    public long getTotalCapacity() {
+        return this.totalCapacity;
+    }
+
+    /**
+     * Detects the unit-capacity structure of a bipartite matching encoded as a flow network:
+     * source -> left nodes with capacity 1, left -> right nodes with any positive capacity, and right nodes -> sink
+     * with capacity 1, each left and right node having exactly one such edge, and no other edge (zero capacity ones aside).
+     * The max flow is then the maximum matching of the returned bipartite graph, otherwise null is returned.
+     * @return
+     */
+    public BipartiteGraph detectBipartiteMatching() {
+        final byte LEFT = 1, RIGHT = 2;
+        int verticesCount = this.vertices.size();
+        byte[] roles = new byte[verticesCount];
+        int[] indices = new int[verticesCount];
+        int leftCount = 0, rightCount = 0;
+
+        int edgesCount = this.getEdgesCount();
+
+        for (int edge = 0; edge < edgesCount; edge++) {
+            int fromNode = this.getFromNode(edge), toNode = this.getToNode(edge);
+            long capacity = this.getCapacity(edge);
+            if (capacity == 0) {
+                continue;
+            }
+            if (toNode == this.source || fromNode == this.sink || (fromNode == this.source && toNode == this.sink)) {
+                return null;
+            }
+            if (fromNode == this.source) {
+                if (capacity != 1 || roles[toNode] != 0) {
+                    return null;
+                }
+                roles[toNode] = LEFT;
+                indices[toNode] = leftCount++;
+            } else if (toNode == this.sink) {
+                if (capacity != 1 || roles[fromNode] != 0) {
+                    return null;
+                }
+                roles[fromNode] = RIGHT;
+                indices[fromNode] = rightCount++;
+            }
+        }
+        if (leftCount == 0 || rightCount == 0) {
+            return null;
+        }
+
+        int[] leftNodes = new int[leftCount], rightNodes = new int[rightCount];
+        for (int node = 0; node < verticesCount; node++) {
+            if (roles[node] == LEFT) {
+                leftNodes[indices[node]] = node;
+            } else if (roles[node] == RIGHT) {
+                rightNodes[indices[node]] = node;
+            }
+        }
+
+        // the middle edges, counted per left node, then placed with a counting sort.
+        int[] offsets = new int[leftCount + 1];
+        for (int edge = 0; edge < edgesCount; edge++) {
+            int fromNode = this.getFromNode(edge), toNode = this.getToNode(edge);
+            if (this.getCapacity(edge) == 0 || fromNode == this.source || toNode == this.sink) {
+                continue;
+            }
+            if (roles[fromNode] != LEFT || roles[toNode] != RIGHT) {
+                return null;
+            }
+            offsets[indices[fromNode] + 1]++;
+        }
+        for (int left = 0; left < leftCount; left++) {
+            offsets[left + 1] += offsets[left];
+        }
+        int[] adjacentRights = new int[offsets[leftCount]];
+        int[] nextIndex = Arrays.copyOf(offsets, leftCount);
+        for (int edge = 0; edge < edgesCount; edge++) {
+            int fromNode = this.getFromNode(edge), toNode = this.getToNode(edge);
+            if (this.getCapacity(edge) != 0 && fromNode != this.source && toNode != this.sink) {
+                adjacentRights[nextIndex[indices[fromNode]]++] = indices[toNode];
+            }
+        }
+
+        return new BipartiteGraph(verticesCount, leftNodes, rightNodes, offsets, adjacentRights);
+    }
+
+    /**
+     * Checks whether any edge was given a cost, see the min-cost flow.
+     * @return
+     */
+    public boolean hasCosts() {
+        return this.hasCosts;
+    }
+
+    /**
+     * Creates the residual graph reading every edge as undirected, eg. for the Gomory-Hu tree.
+     * @return
+     */
+    public ResidualGraph createUndirectedResidualGraph() {
+        // each arc may carry its capacity plus the flow of its pair.
+        if (this.totalCapacity > Integer.MAX_VALUE / 2) {
+            throw new IllegalStateException("Invalid operation, the total capacity " + this.totalCapacity + " exceeds the int range.");
+        }
+        return ResidualGraph.FromUndirectedEdges(this.vertices.size(), this.getEdges());
+    }
+
     public int getSource() {
         return this.source;
     }
@@ -91,50 +365,145 @@ public class FlowGraph {
     public int getSink() {
         return this.sink;
     }
-    
+
     private void setSource(int source) {
         this.source = source;
     }
-    
+
     private void setSink(int sink) {
         this.sink = sink;
     }
 
-    private Node getNode(int nodeId) {
-        for (Node node: this.vertices) {
-            if (node.id == nodeId) {
-                return node;
-            }
+    /**
+     * Creates the node, and any missing one below it, since nodes are indexed by their id.
+     * @param nodeId
+     */
+    void createNode(int nodeId) {
+        for (int id = this.vertices.size(); id <= nodeId; id++) {
+            this.vertices.add(new Node(id));
+        }
+    }
+
+    void addEdge(int fromNode, int toNode, long capacity) {
+        this.addEdge(fromNode, toNode, capacity, 0);
+    }
+
+    void addEdge(int fromNode, int toNode, long capacity, long cost) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity should be a non-negative number.");
+        } else if (fromNode == toNode) {
+            throw new IllegalArgumentException("Invalid operation, from and to nodes should be different for adding an edge.");
+        } else if (toNode < 0) {
+            throw new IllegalArgumentException("Invalid operation, node ids should be non-negative.");
+        }
+
+        Edge newEdge = new Edge(fromNode, toNode, capacity, cost);
+        this.edges.add(newEdge);
+        this.hasCosts |= cost != 0;
+        // the total capacity bounds every flow and residual capacity, so keeping it in a long keeps them in a long too.
+        if (capacity > Long.MAX_VALUE - this.totalCapacity) {
+            throw new IllegalArgumentException("Invalid input, the total capacity exceeds the 64-bit range.");
         }
-        return null;
+        this.totalCapacity += capacity;
+        this.countInwardEdge(fromNode, toNode);
     }
 
-    private void createNode(int nodeId) {        
-        Node node = this.getNode(nodeId);
-        if (node == null) {
-            Node newNode = new Node(nodeId);
-            this.vertices.add(newNode);
+    /**
+     * Counts the inward edge of the node, once per adjacent node like the adjacency list does.
+     * Edges are added line by line, so a parallel edge always comes from the line being read,
+     * and stamping the counted node (plus one, zero being unset) is enough to skip it.
+     * @param fromNode
+     * @param toNode
+     */
+    private void countInwardEdge(int fromNode, int toNode) {
+        if (toNode >= this.inwardEdgesCounter.length) {
+            int newLength = Math.max(toNode + 1, 2 * this.inwardEdgesCounter.length);
+            this.inwardEdgesCounter = Arrays.copyOf(this.inwardEdgesCounter, newLength);
+            this.lastInwardEdgeFrom = Arrays.copyOf(this.lastInwardEdgeFrom, newLength);
+        }
+        if (this.lastInwardEdgeFrom[toNode] != fromNode + 1) {
+            this.lastInwardEdgeFrom[toNode] = fromNode + 1;
+            this.inwardEdgesCounter[toNode]++;
         }
     }
 
-    private Optional<Edge> getEdge(int fromNode, int toNode) {
-        for (Edge edge: this.edges) {
-            if (edge.fromNode == fromNode && edge.toNode == toNode) {
-                return Optional.of(edge);
-            }
+    /**
+     * Ends the input line of the node, the first line with no outward edges gives the sink.
+     * @param node
+     * @param edgesInLine
+     */
+    void endLine(int node, int edgesInLine) {
+        if (edgesInLine == 0 && this.sink < 0) { // since, no outward edges, identifying this node as sink.
+            this.setSink(node);
         }
-        return null;
     }
 
-    private void addEdge(int fromNode, int toNode, int capacity) throws Exception {
-        if (capacity < 0) {
-            throw new IllegalArgumentException("Capacity should be a non-negative number.");
-        } else if (fromNode == toNode) { 
-            throw new IllegalArgumentException("Invalid operation, from and to nodes should be different for adding an edge.");
+    /**
+     * Loads the graph from CSR arrays, with the source and sink already known.
+     * The int residual graph is built straight from the arrays, without the edge list, unless the total capacity needs 64 bits.
+     * @param verticesCount
+     * @param source
+     * @param sink
+     * @param offsets
+     * @param targets
+     * @param capacities
+     */
+    void loadGraph(int verticesCount, int source, int sink, int[] offsets, int[] targets, int[] capacities) {
+        int edgesCount = targets.length;
+        if (verticesCount <= 0 || offsets[0] != 0 || offsets[verticesCount] != edgesCount || source < 0 || source >= verticesCount || sink < 0 || sink >= verticesCount) {
+            throw new IllegalArgumentException("Invalid input, binary graph file is truncated or corrupted.");
         }
+        this.createNode(verticesCount - 1);
 
-        Edge newEdge = new Edge(fromNode, toNode, capacity);
-        this.edges.add(newEdge); // store backward edge too?
+        int[] fromNodes = new int[edgesCount];
+        long totalCapacity = 0; // at most 2^31 edges of 2^31 capacity, no overflow.
+        for (int u = 0; u < verticesCount; u++) {
+            if (offsets[u + 1] < offsets[u]) {
+                throw new IllegalArgumentException("Invalid input, binary graph file is truncated or corrupted.");
+            }
+            for (int index = offsets[u]; index < offsets[u + 1]; index++) {
+                int toNode = targets[index];
+                if (capacities[index] < 0) {
+                    throw new IllegalArgumentException("Capacity should be a non-negative number.");
+                } else if (toNode == u) {
+                    throw new IllegalArgumentException("Invalid operation, from and to nodes should be different for adding an edge.");
+                } else if (toNode < 0 || toNode >= verticesCount) {
+                    throw new IllegalArgumentException("Invalid input, binary graph file is truncated or corrupted.");
+                }
+                fromNodes[index] = u;
+                totalCapacity += capacities[index];
+            }
+        }
+
+        this.linesCount = verticesCount;
+        this.totalCapacity = totalCapacity;
+        this.setSource(source);
+        this.setSink(sink);
+        if (this.hasLongCapacities()) {
+            for (int index = 0; index < edgesCount; index++) {
+                this.edges.add(new Edge(fromNodes[index], targets[index], capacities[index]));
+            }
+            this.longResidualGraph = LongResidualGraph.FromEdges(verticesCount, this.edges);
+        } else {
+            this.edges = null;
+            this.residualGraph = ResidualGraph.FromArrays(verticesCount, fromNodes, targets, capacities, edgesCount);
+        }
+    }
+
+    /**
+     * Completes the graph once all the lines are read: saves the sink and source nodes, builds the residual graph.
+     * @param linesCount
+     */
+    private void completeGraph(int linesCount) {
+        this.linesCount = linesCount;
+        this.checkAndSaveSinkNode(linesCount);
+        this.identifySourceNode();
+        // no flow can exceed the total capacity, so int capacities are safe while it fits in an int.
+        if (this.hasLongCapacities()) {
+            this.longResidualGraph = LongResidualGraph.FromEdges(this.vertices.size(), this.edges);
+        } else {
+            this.residualGraph = ResidualGraph.FromEdges(this.vertices.size(), this.edges);
+        }
     }
 
     private void createCapacityGraph() {
@@ -145,75 +514,59 @@ public class FlowGraph {
             Arrays.fill(capacityArrayListItem, Constants.NO_EDGE);
         }
 
-        for (int u = 0; u < verticesCount; u++) {
-            for (int v = 0; v < verticesCount; v++) {
-                if (v != u) {
-                    Optional<Edge> edge = this.getEdge(u, v);
-                    this.capacityGraph[u][v] = edge != null ? edge.get().capacity : Constants.NO_EDGE;                    
-                }
+        // for parallel edges, the first one in the input holds.
+        for (Edge edge: this.getEdges()) {
+            if (this.capacityGraph[edge.fromNode][edge.toNode] == Constants.NO_EDGE) {
+                this.capacityGraph[edge.fromNode][edge.toNode] = (int) edge.capacity;
             }
         }
     }
 
-    private void updateAdjacencyList(int currentNode, int adjacentNode) {
-        if (this.adjacencyList.containsKey(currentNode)) {
-            LinkedHashSet<Integer> existingAdjacentNodes = this.adjacencyList.get(currentNode);
-            existingAdjacentNodes.add(adjacentNode);
-            this.adjacencyList.put(currentNode, existingAdjacentNodes);
-        } else {
-            LinkedHashSet<Integer> adjacentNodesList = new LinkedHashSet<>();
-            adjacentNodesList.add(adjacentNode);
-            this.adjacencyList.put(currentNode, adjacentNodesList);            
+    private void createAdjacencyList() {
+        this.adjacencyList = new LinkedHashMap<Integer, LinkedHashSet<Integer>>(2 * this.linesCount);
+        for (int node = 0; node < this.linesCount; node++) {
+            this.adjacencyList.put(node, new LinkedHashSet<>());
+        }
+        for (Edge edge: this.getEdges()) {
+            this.adjacencyList.get(edge.fromNode).add(edge.toNode);
         }
     }
 
     private void checkAndSaveSinkNode(Integer currentNode) {
         if (this.sink < 0) { // since, no outward edges, identifying this node as sink.
-            this.createNode(currentNode);         
+            this.createNode(currentNode);
             this.setSink(currentNode);
         }
     }
 
+    /**
+     * Identifies the (first, if many) node with the fewest inward edges as the source node.
+     */
     private void identifySourceNode() {
-        if (this.adjacencyList.size() > 0 && this.source < 0) {
-            // tracking node wise inward edges frequency count.
-            Map<Integer, Integer> nodeWiseInwardEdgesCounter = new LinkedHashMap<>(this.adjacencyList.size());
-            List<Integer> adjacentNodeList = this.adjacencyList.values().stream()
-                                                    .flatMap(lists -> lists.stream())
-                                                    .collect(Collectors.toList());
-            for (Node node: this.vertices) {
-                Integer vertex = node.id;
-                Integer inwardEdgesCount = Collections.frequency(adjacentNodeList, vertex);
-                if (!nodeWiseInwardEdgesCounter.containsKey(vertex)) {
-                    nodeWiseInwardEdgesCounter.put(vertex, inwardEdgesCount);
+        if (this.linesCount > 0 && this.source < 0) {
+            int verticesCount = this.vertices.size(), sourceNode = 0;
+            for (int node = 1; node < verticesCount; node++) {
+                if (this.getInwardEdgesCount(node) < this.getInwardEdgesCount(sourceNode)) {
+                    sourceNode = node;
                 }
             }
-
-            // finding the (first, if many) edge with no inward edges and identifying it as source node.
-            Set<Entry<Integer, Integer>> entries = nodeWiseInwardEdgesCounter.entrySet();
-            List<Entry<Integer, Integer>> sortedEntries = new ArrayList<>(entries);
-            Collections.sort(
-                sortedEntries, 
-                (entry1, entry2) -> {
-                    int count1 = entry1.getValue(), count2 = entry2.getValue(); 
-                    return count1 < count2 ? -1 : (count1 > count2 ? 1 : 0);
-                }
-            );
-
-            /** 
-             * since we are labeling and inserting nodes in asc order, 
-            * and linkedhashmap preserves order, taking first element directly. 
-            */
-            this.setSource(sortedEntries.get(0).getKey()); 
+            this.setSource(sourceNode);
         }
     }
 
+    private int getInwardEdgesCount(int node) {
+        return node < this.inwardEdgesCounter.length ? this.inwardEdgesCounter[node] : 0;
+    }
+
     private void printGraph() {
-        System.out.println("Graph (V, E): (" + this.vertices.size() + ", " + this.edges.size() + ")");
-        System.out.println("Adjacency List:");
-        for (Map.Entry<Integer, LinkedHashSet<Integer>> map: this.adjacencyList.entrySet()) {                     
-            System.out.println(map.getKey() + " -> " + map.getValue());
+        TraceLog.TraceLine("Graph (V, E): (" + this.vertices.size() + ", " + this.getEdgesCount() + ")");
+        TraceLog.TraceLine("Adjacency List:");
+        for (Map.Entry<Integer, LinkedHashSet<Integer>> map: this.getAdjacentList().entrySet()) {
+            if (!TraceLog.IsTraceEnabled()) { // truncated, no point in building the rest.
+                break;
+            }
+            TraceLog.TraceLine(map.getKey() + " -> " + map.getValue());
         }
-        System.out.println();
+        TraceLog.TraceLine("");
     }
 }
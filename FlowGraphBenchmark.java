@@ -0,0 +1,25 @@
+package networkflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import networkflow.core.FlowGraph;
+
+/**
+ * Benchmarks parsing the input file and building the flow graph, CSR residual graph included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FlowGraphBenchmark {
+
+    @Benchmark
+    public FlowGraph buildGraph(GraphBenchmarkState state) throws Exception {
+        FlowGraph graph = new FlowGraph();
+        graph.buildGraph(state.inputFile);
+        return graph;
+    }
+}
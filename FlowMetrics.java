@@ -0,0 +1,161 @@
+package networkflow.utils;
+
+/**
+ * Counters and phase timings filled in by the graph build and the solvers, when one is passed to them.
+ * Without a metrics object the hot loops only keep local counters, so the overhead of disabled metrics is near zero.
+ * The metrics are exported as JSON, and as a JFR event when the flight recorder is enabled.
+ * A metrics object is filled in by one solver at a time.
+ */
+public class FlowMetrics {
+
+    /**
+     * The timed phases of a run.
+     */
+    public enum Phase {
+        PARSE("parse"),
+        BUILD("build"),
+        REDUCE("reduce"),
+        SOLVE("solve");
+
+        public final String phaseName;
+
+        private Phase(String phaseName) {
+            this.phaseName = phaseName;
+        }
+    }
+
+    private static final int HISTOGRAM_BUCKETS = Integer.SIZE;
+
+    private long augmentingPaths;
+    private long edgesRelaxed;
+    private long verticesDequeued;
+    private long searches;
+    private final long[] bottleneckHistogram = new long[HISTOGRAM_BUCKETS]; // bucket i counts the bottlenecks in [2^i, 2^(i+1)).
+    private final long[] phaseNanos = new long[Phase.values().length];
+
+    /**
+     * Checks whether the flight recorder records the metrics event, so that metrics can be collected for it.
+     * @return
+     */
+    public static boolean IsRecording() {
+        return new FlowMetricsEvent().isEnabled();
+    }
+
+    /**
+     * Records one search over the residual graph.
+     * @param verticesDequeued
+     * @param edgesRelaxed
+     */
+    public void recordSearch(long verticesDequeued, long edgesRelaxed) {
+        this.searches++;
+        this.verticesDequeued += verticesDequeued;
+        this.edgesRelaxed += edgesRelaxed;
+    }
+
+    /**
+     * Records one augmenting path and its bottleneck capacity.
+     * @param bottleneckCapacity
+     */
+    public void recordAugmentation(int bottleneckCapacity) {
+        this.augmentingPaths++;
+        this.bottleneckHistogram[FlowMetrics.GetBucket(bottleneckCapacity)]++;
+    }
+
+    /**
+     * Adds the time elapsed since startNanos (from System.nanoTime) to the phase.
+     * @param phase
+     * @param startNanos
+     */
+    public void recordPhase(Phase phase, long startNanos) {
+        this.phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+    }
+
+    public long getAugmentingPaths() {
+        return this.augmentingPaths;
+    }
+
+    public long getEdgesRelaxed() {
+        return this.edgesRelaxed;
+    }
+
+    public long getVerticesDequeued() {
+        return this.verticesDequeued;
+    }
+
+    public long getSearches() {
+        return this.searches;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return this.phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Gets the number of bottlenecks in [2^bucket, 2^(bucket + 1)).
+     * @param bucket
+     * @return
+     */
+    public long getBottleneckCount(int bucket) {
+        return this.bottleneckHistogram[bucket];
+    }
+
+    /**
+     * Exports the metrics as a JSON object, the histogram listing its non-empty buckets only.
+     * @return
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"augmentingPaths\": ").append(this.augmentingPaths)
+            .append(", \"searches\": ").append(this.searches)
+            .append(", \"verticesDequeued\": ").append(this.verticesDequeued)
+            .append(", \"edgesRelaxed\": ").append(this.edgesRelaxed)
+            .append(", \"bottleneckHistogram\": [");
+        boolean first = true;
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+            if (this.bottleneckHistogram[bucket] == 0) {
+                continue;
+            }
+            json.append(first ? "" : ", ")
+                .append("{\"min\": ").append(1L << bucket)
+                .append(", \"max\": ").append((1L << (bucket + 1)) - 1)
+                .append(", \"count\": ").append(this.bottleneckHistogram[bucket]).append('}');
+            first = false;
+        }
+        json.append("], \"phaseNanos\": {");
+        for (Phase phase: Phase.values()) {
+            json.append(phase.ordinal() > 0 ? ", " : "")
+                .append('"').append(phase.phaseName).append("\": ").append(this.phaseNanos[phase.ordinal()]);
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * Commits the metrics as a JFR event, if the flight recorder records it.
+     * @param engineName
+     */
+    public void commitEvent(String engineName) {
+        FlowMetricsEvent event = new FlowMetricsEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.engine = engineName;
+        event.augmentingPaths = this.augmentingPaths;
+        event.searches = this.searches;
+        event.verticesDequeued = this.verticesDequeued;
+        event.edgesRelaxed = this.edgesRelaxed;
+        event.parseTime = this.phaseNanos[Phase.PARSE.ordinal()];
+        event.buildTime = this.phaseNanos[Phase.BUILD.ordinal()];
+        event.reduceTime = this.phaseNanos[Phase.REDUCE.ordinal()];
+        event.solveTime = this.phaseNanos[Phase.SOLVE.ordinal()];
+        event.commit();
+    }
+
+    /**
+     * Gets the histogram bucket of the capacity, ie. floor(log2(capacity)).
+     * @param capacity
+     * @return
+     */
+    private static int GetBucket(int capacity) {
+        return capacity <= 0 ? 0 : Integer.SIZE - 1 - Integer.numberOfLeadingZeros(capacity);
+    }
+}
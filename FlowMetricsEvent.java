@@ -0,0 +1,51 @@
+package networkflow.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event with the metrics of one max-flow run, committed by FlowMetrics.commitEvent.
+ * Recorded with eg. java -XX:StartFlightRecording:filename=flow.jfr networkflow.Main -f input.txt
+ */
+@Name("networkflow.MaxFlow")
+@Label("Max Flow")
+@Category("Network Flow")
+@Description("Counters and phase timings of a max-flow run")
+@StackTrace(false)
+class FlowMetricsEvent extends Event {
+    @Label("Engine")
+    String engine;
+
+    @Label("Augmenting Paths")
+    long augmentingPaths;
+
+    @Label("Searches")
+    long searches;
+
+    @Label("Vertices Dequeued")
+    long verticesDequeued;
+
+    @Label("Edges Relaxed")
+    long edgesRelaxed;
+
+    @Label("Parse Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long parseTime;
+
+    @Label("Build Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long buildTime;
+
+    @Label("Reduce Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long reduceTime;
+
+    @Label("Solve Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long solveTime;
+}
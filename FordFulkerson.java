@@ -6,10 +6,15 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import networkflow.Constants;
 import networkflow.algorithms.BreadthFirstSearch;
+import networkflow.algorithms.PathSearch;
+import networkflow.core.ResidualGraph;
+import networkflow.utils.FlowMetrics;
+import networkflow.utils.TraceLog;
 
 /**
  * The class for implementing the ford-fulkerson max-flow algorithm using BFS.
@@ -17,7 +22,25 @@ import networkflow.algorithms.BreadthFirstSearch;
  * 1. https://www.geeksforgeeks.org/ford-fulkerson-algorithm-for-maximum-flow-problem/
  * 2. https://algorithms.tutorialhorizon.com/max-flow-problem-ford-fulkerson-algorithm/
  */
-public class FordFulkerson {
+public class FordFulkerson implements MaxFlowSolver {
+    private final Function<ResidualGraph, PathSearch> pathSearchFactory;
+    private FlowMetrics metrics;
+    private PathSearch pathSearch;
+    private ResidualGraph pathSearchGraph; // the graph the search was created for.
+
+    public FordFulkerson() {
+        this(BreadthFirstSearch::CreatePathSearch);
+    }
+
+    /**
+     * Creates the solver finding the augmenting paths with the given search, which should
+     * return shortest paths to keep the Edmonds-Karp bound.
+     * @param pathSearchFactory
+     */
+    public FordFulkerson(Function<ResidualGraph, PathSearch> pathSearchFactory) {
+        this.pathSearchFactory = pathSearchFactory;
+    }
+
     /**
      * Runs the Ford-Fulkerson algorithm with BFS.
      * returns the maximum flow if the path exists from source to sink, otherwise zero.
@@ -64,7 +87,9 @@ public class FordFulkerson {
                 rCapacityGraph[u][v] += pathMaxFlow;
             }
             
-            FordFulkerson.PrintGraph(nodesInCurrentPath, pathMaxFlow, rCapacityGraph);
+            if (TraceLog.IsTraceEnabled()) {
+                FordFulkerson.PrintGraph(nodesInCurrentPath, pathMaxFlow, rCapacityGraph);
+            }
             
             // Add path flow to overall flow
             maxFlow += pathMaxFlow;            
@@ -73,6 +98,68 @@ public class FordFulkerson {
         return maxFlow;
     }
 
+    /**
+     * Runs the Ford-Fulkerson algorithm with BFS on the CSR residual graph.
+     * returns the maximum flow if the path exists from source to sink, otherwise zero.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @return
+     */
+    public static int Run(ResidualGraph residualGraph, int source, int sink) {
+        return new FordFulkerson().solve(residualGraph, source, sink);
+    }
+
+    @Override
+    public int solve(ResidualGraph residualGraph, int source, int sink, int[] rCapacities) {
+        if (residualGraph.verticesCount <= 0 || source == sink) return 0;
+
+        int maxFlow = 0;
+
+        // the search keeps its scratch memory across the augmenting paths, so no garbage is produced per iteration,
+        // and across the solves on the same graph.
+        if (this.pathSearch == null || this.pathSearchGraph != residualGraph) {
+            this.pathSearch = this.pathSearchFactory.apply(residualGraph);
+            this.pathSearchGraph = residualGraph;
+        }
+        PathSearch pathSearch = this.pathSearch;
+        pathSearch.setMetrics(this.metrics);
+        int[] predecessorArcs = pathSearch.getPredecessorArcs();
+        int[] reverseArcs = residualGraph.reverseArcs, targets = residualGraph.targets;
+
+        while (pathSearch.search(source, sink, rCapacities)) {
+
+            int pathMaxFlow = Integer.MAX_VALUE;
+            for (int u = sink; u != source; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                pathMaxFlow = Math.min(pathMaxFlow, rCapacities[predecessorArcs[u]]);
+            }
+
+            // updating the capacities of arcs along the path and of their paired reverse arcs.
+            for (int u = sink; u != source; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                int arc = predecessorArcs[u];
+                rCapacities[arc] -= pathMaxFlow;
+                rCapacities[reverseArcs[arc]] += pathMaxFlow;
+            }
+
+            if (this.metrics != null) {
+                this.metrics.recordAugmentation(pathMaxFlow);
+            }
+            if (TraceLog.IsTraceEnabled()) {
+                FordFulkerson.PrintGraph(residualGraph, source, sink, predecessorArcs, pathMaxFlow, rCapacities);
+            }
+
+            // Add path flow to overall flow
+            maxFlow += pathMaxFlow;
+        }
+
+        return maxFlow;
+    }
+
+    @Override
+    public void setMetrics(FlowMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Creates an adjacency list for residual graph.
      * @param adjacencyList
@@ -95,25 +182,66 @@ public class FordFulkerson {
      * @param rCapacityGraph
      */
     private static void PrintGraph(ArrayList<Integer> nodesInCurrentPath, int bottleneckCapacity, int[][] rCapacityGraph) {
-        System.out.println("Residual Graph: ");
-        System.out.print("Path (Augmented): ");
+        StringBuilder trace = new StringBuilder();
+        trace.append("Residual Graph: \n");
+        trace.append("Path (Augmented): ");
         for (int i = nodesInCurrentPath.size()-1; i >= 0; i--) {                         
-            System.out.print(nodesInCurrentPath.get(i));
+            trace.append(nodesInCurrentPath.get(i));
             if (i != 0) {
-                System.out.print(" -> ");                
+                trace.append(" -> ");                
             }
         }
         
-        System.out.println("\nBottlneck Capacity along the path: " + bottleneckCapacity);
-        System.out.println("Capacity graph: ");
+        trace.append("\nBottlneck Capacity along the path: ").append(bottleneckCapacity).append('\n');
+        trace.append("Capacity graph: \n");
         for (int u = 0; u < rCapacityGraph.length; u++) {
             for (int v = 0; v < rCapacityGraph.length; v++) {
                 if (v != u && rCapacityGraph[u][v] != Constants.NO_EDGE) {
-                    System.out.printf("%s -> %s: %s \t", u, v, rCapacityGraph[u][v]);                    
+                    trace.append(u).append(" -> ").append(v).append(": ").append(rCapacityGraph[u][v]).append(" \t");
                 }
             }
-            System.out.println();
+            trace.append('\n');
         }
-        
+        TraceLog.Trace(trace);
+    }
+
+    /**
+     * Method to print the CSR residual graph details.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @param predecessorArcs
+     * @param bottleneckCapacity
+     * @param rCapacities
+     */
+    private static void PrintGraph(ResidualGraph residualGraph, int source, int sink, int[] predecessorArcs, int bottleneckCapacity, int[] rCapacities) {
+        ArrayList<Integer> nodesInCurrentPath = new ArrayList<Integer>();
+        for (int u = sink; u != source; u = residualGraph.getArcSource(predecessorArcs[u])) {
+            nodesInCurrentPath.add(u);
+        }
+        nodesInCurrentPath.add(source);
+
+        StringBuilder trace = new StringBuilder();
+        trace.append("Residual Graph: \n");
+        trace.append("Path (Augmented): ");
+        for (int i = nodesInCurrentPath.size()-1; i >= 0; i--) {
+            trace.append(nodesInCurrentPath.get(i));
+            if (i != 0) {
+                trace.append(" -> ");
+            }
+        }
+
+        trace.append("\nBottlneck Capacity along the path: ").append(bottleneckCapacity).append('\n');
+        trace.append("Capacity graph: \n");
+        for (int u = 0; u < residualGraph.verticesCount; u++) {
+            for (int arc = residualGraph.offsets[u]; arc < residualGraph.offsets[u + 1]; arc++) {
+                // skipping the backward arcs which never carried any flow.
+                if (residualGraph.capacities[arc] > 0 || rCapacities[arc] > 0) {
+                    trace.append(u).append(" -> ").append(residualGraph.targets[arc]).append(": ").append(rCapacities[arc]).append(" \t");
+                }
+            }
+            trace.append('\n');
+        }
+        TraceLog.Trace(trace);
     }
 }
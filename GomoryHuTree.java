@@ -0,0 +1,243 @@
+package networkflow.algorithms.maxflow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import networkflow.core.ResidualGraph;
+
+/**
+ * The class for implementing the Gomory-Hu (flow equivalent) tree of an undirected graph, using Gusfield's algorithm.
+ * Node s = 1 .. n - 1 is cut from its tree parent p[s] (initially node 0) with one max-flow call, and the later nodes
+ * on its side of the cut whose parent is p[s] are moved under s. The min cut between any two nodes is then the
+ * lightest edge on their tree path, found in O(log n) with binary lifting.
+ * The max-flow calls are run speculatively in parallel with the parent known at the time, and are accepted in
+ * node order, a call being solved again when its parent was changed by an earlier cut in the meantime.
+ * Reference:
+ * 1. D. Gusfield, Very simple methods for all pairs network flow analysis, SIAM J. Comput., 1990.
+ * 2. https://en.wikipedia.org/wiki/Gomory%E2%80%93Hu_tree
+ */
+public class GomoryHuTree {
+    private final int verticesCount;
+    private final int[] parents;
+    private final int[] weights; // min cut between the node and its parent.
+    private final int[] depths;
+    private final int[][] ancestors; // ancestors[k][v], the 2^k-th ancestor of v.
+    private final int[][] lightestEdges; // lightestEdges[k][v], the lightest edge among the 2^k edges above v.
+
+    private GomoryHuTree(int[] parents, int[] weights) {
+        this.verticesCount = parents.length;
+        this.parents = parents;
+        this.weights = weights;
+        this.depths = new int[this.verticesCount];
+
+        // parents are always earlier nodes, so the depths and ancestors are filled in node order.
+        int levels = 1;
+        while ((1 << levels) < this.verticesCount) {
+            levels++;
+        }
+        this.ancestors = new int[levels][this.verticesCount];
+        this.lightestEdges = new int[levels][this.verticesCount];
+        for (int v = 0; v < this.verticesCount; v++) {
+            this.depths[v] = v == 0 ? 0 : this.depths[parents[v]] + 1;
+            this.ancestors[0][v] = v == 0 ? 0 : parents[v];
+            this.lightestEdges[0][v] = v == 0 ? Integer.MAX_VALUE : weights[v];
+            for (int k = 1; k < levels; k++) {
+                int middle = this.ancestors[k - 1][v];
+                this.ancestors[k][v] = this.ancestors[k - 1][middle];
+                this.lightestEdges[k][v] = Math.min(this.lightestEdges[k - 1][v], this.lightestEdges[k - 1][middle]);
+            }
+        }
+    }
+
+    /**
+     * Builds the tree of the undirected residual graph (see ResidualGraph.FromUndirectedEdges),
+     * running the max-flow calls on the given number of threads.
+     * @param undirectedGraph
+     * @param engine
+     * @param threads
+     * @return
+     * @throws InterruptedException
+     */
+    public static GomoryHuTree Build(ResidualGraph undirectedGraph, MaxFlowEngine engine, int threads) throws InterruptedException {
+        int verticesCount = undirectedGraph.verticesCount;
+        if (verticesCount <= 0) {
+            throw new IllegalArgumentException("Invalid input, the graph has no nodes.");
+        }
+        int[] parents = new int[verticesCount];
+        int[] weights = new int[verticesCount];
+
+        int workersCount = Math.max(1, threads), window = 2 * workersCount;
+        ThreadLocal<CutSolver> cutSolvers = ThreadLocal.withInitial(() -> new CutSolver(undirectedGraph, engine));
+        ExecutorService executor = Executors.newFixedThreadPool(workersCount);
+        try {
+            List<Future<Cut>> speculativeCuts = new ArrayList<>(verticesCount);
+            speculativeCuts.add(null);
+            for (int s = 1; s < verticesCount; s++) {
+                // keeping a window of cuts ahead, each one speculating on the parent known now.
+                while (speculativeCuts.size() < verticesCount && speculativeCuts.size() < s + window) {
+                    int node = speculativeCuts.size(), parent = parents[node];
+                    speculativeCuts.add(executor.submit(() -> cutSolvers.get().solve(node, parent)));
+                }
+
+                Cut cut = GomoryHuTree.GetCut(speculativeCuts.get(s));
+                speculativeCuts.set(s, null);
+                if (cut.sink != parents[s]) { // the parent changed after the speculation.
+                    cut = cutSolvers.get().solve(s, parents[s]);
+                }
+
+                weights[s] = cut.value;
+                for (int v = s + 1; v < verticesCount; v++) {
+                    if (cut.sourceSide[v] && parents[v] == cut.sink) {
+                        parents[v] = s;
+                        if (v < speculativeCuts.size()) { // already speculating on the old parent.
+                            speculativeCuts.get(v).cancel(false);
+                            int node = v, parent = s;
+                            speculativeCuts.set(v, executor.submit(() -> cutSolvers.get().solve(node, parent)));
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new GomoryHuTree(parents, weights);
+    }
+
+    public int getVerticesCount() {
+        return this.verticesCount;
+    }
+
+    /**
+     * Gets the parent of the node in the tree, the root (node 0) being its own parent.
+     * @param node
+     * @return
+     */
+    public int getParent(int node) {
+        return this.ancestors[0][node];
+    }
+
+    /**
+     * Gets the weight of the tree edge from the node to its parent, ie. the min cut between them.
+     * @param node
+     * @return
+     */
+    public int getWeight(int node) {
+        return this.weights[node];
+    }
+
+    /**
+     * Gets the min cut, ie. the max flow, between the two nodes in O(log n).
+     * @param u
+     * @param v
+     * @return
+     */
+    public int getMinCut(int u, int v) {
+        if (u < 0 || v < 0 || u >= this.verticesCount || v >= this.verticesCount) {
+            throw new IllegalArgumentException("Invalid input, node out of range.");
+        }
+        if (u == v) {
+            throw new IllegalArgumentException("Invalid input, the min cut needs two distinct nodes.");
+        }
+
+        int minCut = Integer.MAX_VALUE;
+        if (this.depths[u] < this.depths[v]) {
+            int swap = u; u = v; v = swap;
+        }
+        for (int k = this.ancestors.length - 1; k >= 0; k--) { // lifting u to the depth of v.
+            if (this.depths[u] - (1 << k) >= this.depths[v]) {
+                minCut = Math.min(minCut, this.lightestEdges[k][u]);
+                u = this.ancestors[k][u];
+            }
+        }
+        if (u == v) {
+            return minCut;
+        }
+        for (int k = this.ancestors.length - 1; k >= 0; k--) { // lifting both below their lowest common ancestor.
+            if (this.ancestors[k][u] != this.ancestors[k][v]) {
+                minCut = Math.min(minCut, Math.min(this.lightestEdges[k][u], this.lightestEdges[k][v]));
+                u = this.ancestors[k][u];
+                v = this.ancestors[k][v];
+            }
+        }
+        return Math.min(minCut, Math.min(this.lightestEdges[0][u], this.lightestEdges[0][v]));
+    }
+
+    private static Cut GetCut(Future<Cut> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * A min cut between the source and the sink, with its source side.
+     */
+    private static final class Cut {
+        final int sink;
+        final int value;
+        final boolean[] sourceSide;
+
+        Cut(int sink, int value, boolean[] sourceSide) {
+            this.sink = sink;
+            this.value = value;
+            this.sourceSide = sourceSide;
+        }
+    }
+
+    /**
+     * Solver and scratch memory of one worker thread, reused across its cuts.
+     */
+    private static final class CutSolver {
+        private final ResidualGraph graph;
+        private final MaxFlowSolver solver;
+        private final int[] residualCapacities;
+        private final int[] queue;
+
+        CutSolver(ResidualGraph graph, MaxFlowEngine engine) {
+            this.graph = graph;
+            this.solver = engine.createSolver();
+            this.residualCapacities = new int[graph.getArcsCount()];
+            this.queue = new int[graph.verticesCount];
+        }
+
+        /**
+         * Solves the max flow, then takes as source side the nodes which cannot reach the sink anymore,
+         * which is a min cut for the engines stopping at a maximum preflow as well.
+         * @param source
+         * @param sink
+         * @return
+         */
+        Cut solve(int source, int sink) {
+            System.arraycopy(this.graph.capacities, 0, this.residualCapacities, 0, this.residualCapacities.length);
+            int value = this.solver.solve(this.graph, source, sink, this.residualCapacities);
+
+            int[] offsets = this.graph.offsets, targets = this.graph.targets, reverseArcs = this.graph.reverseArcs;
+            boolean[] reachesSink = new boolean[this.graph.verticesCount];
+            int head = 0, tail = 0;
+            this.queue[tail++] = sink;
+            reachesSink[sink] = true;
+            while (head < tail) {
+                int currentNode = this.queue[head++];
+                for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                    int adjacentNode = targets[arc];
+                    if (!reachesSink[adjacentNode] && this.residualCapacities[reverseArcs[arc]] > 0) {
+                        reachesSink[adjacentNode] = true;
+                        this.queue[tail++] = adjacentNode;
+                    }
+                }
+            }
+
+            for (int v = 0; v < reachesSink.length; v++) { // turning it into the source side in place.
+                reachesSink[v] = !reachesSink[v];
+            }
+            return new Cut(sink, value, reachesSink);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package networkflow.core;
+
+/**
+ * Read access to a residual graph in CSR form, whatever its storage, on the heap or off-heap!
+ * The 64-bit solvers and the BFS read the graph through it, so the same code runs on LongResidualGraph and OffHeapGraph.
+ * Arc indices are longs, so that a graph may have more than 2^31 arcs, while node ids stay ints.
+ * The arcs leaving node u are getFirstArc(u) .. getFirstArc(u + 1) - 1, each one paired with its reverse arc.
+ */
+public interface GraphAccess {
+    int getVerticesCount();
+
+    long getArcsCount();
+
+    /**
+     * Gets the first arc leaving the node, getFirstArc(getVerticesCount()) being the arcs count.
+     * @param node
+     * @return
+     */
+    long getFirstArc(int node);
+
+    int getTarget(long arc);
+
+    long getReverseArc(long arc);
+
+    long getCapacity(long arc);
+
+    /**
+     * Creates the residual capacities of the arcs, starting from their capacities, in the same storage as the graph.
+     * @return
+     */
+    ResidualCapacities createResidualCapacities();
+
+    /**
+     * Gets the capacities of the arcs as read-only residual capacities, for a search on the initial graph without copying them.
+     * @return
+     */
+    default ResidualCapacities getCapacities() {
+        return new ResidualCapacities() {
+            @Override
+            public long get(long arc) {
+                return GraphAccess.this.getCapacity(arc);
+            }
+
+            @Override
+            public void set(long arc, long capacity) {
+                throw new IllegalStateException("Invalid operation, the capacities of the graph are read-only.");
+            }
+        };
+    }
+
+    /**
+     * Gets the tail node of the arc, ie. the head of its paired reverse arc.
+     * @param arc
+     * @return
+     */
+    default int getArcSource(long arc) {
+        return this.getTarget(this.getReverseArc(arc));
+    }
+}
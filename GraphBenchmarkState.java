@@ -0,0 +1,59 @@
+package networkflow.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import networkflow.core.FlowGraph;
+import networkflow.utils.GraphModel;
+import networkflow.utils.LogLevel;
+import networkflow.utils.StreamingGraphGenerator;
+import networkflow.utils.TraceLog;
+
+/**
+ * Benchmark state holding one generated graph, for every combination of model, size and density.
+ * The input file is generated once per trial with a fixed seed, so runs are comparable across changes.
+ */
+@State(Scope.Benchmark)
+public class GraphBenchmarkState {
+    private static final long SEED = 20230101L;
+    private static final int MAX_CAPACITY = 100;
+
+    @Param({ "erdos-renyi", "power-law" })
+    public String model;
+
+    @Param({ "1000", "10000" })
+    public int nodes;
+
+    @Param({ "4", "32" })
+    public int averageDegree;
+
+    public Path inputFile;
+    public FlowGraph graph;
+
+    @Setup(Level.Trial)
+    public void generateGraph() throws Exception {
+        // the trace is not what is being measured.
+        TraceLog.SetLevel(LogLevel.QUIET);
+
+        this.inputFile = Files.createTempFile("networkflow-benchmark", ".txt");
+        new StreamingGraphGenerator(GraphModel.FromName(this.model), this.nodes, this.averageDegree, MAX_CAPACITY, new SplittableRandom(SEED))
+            .generate(this.inputFile);
+
+        this.graph = new FlowGraph();
+        this.graph.buildGraph(this.inputFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteGraph() throws IOException {
+        Files.deleteIfExists(this.inputFile);
+    }
+}
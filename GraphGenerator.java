@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Random;
 
 import networkflow.Constants;
+import networkflow.core.BinaryGraphFormat;
 
 
 /**
@@ -18,6 +19,8 @@ public class GraphGenerator {
 
     private static String BasePath = System.getProperty("user.dir");
 
+    private static final String BINARY_FORMAT = "binary";
+
     private static Random random = new Random();
 
     /**
@@ -25,20 +28,23 @@ public class GraphGenerator {
      * @param args
      */
     public static void main(String... args) {
-        args = new String[] { "896", "903", "1" };
-        if (args.length != 3) {
-            System.out.println("Invalid input, use syntax: program.exe min_nodes max_nodes no_of_times_to_repeat");
+        if (args.length == 0) { // defaults used so far.
+            args = new String[] { "896", "903", "1" };
+        }
+        if (args.length != 3 && args.length != 4) {
+            System.out.println("Invalid input, use syntax: program.exe min_nodes max_nodes no_of_times_to_repeat [text|binary]");
             return;
         }
 
         int startFrom = Integer.parseInt(args[0]), 
             endBy = Integer.parseInt(args[1]), 
             repeatUntil = Integer.parseInt(args[2]);
+        boolean binaryFormat = args.length == 4 && args[3].equals(BINARY_FORMAT);
         if (startFrom >= endBy) {
             System.out.println("Invalid input, min_nodes(first argument) <= max_nodes (second argument)"); return;
         } 
         
-        GraphGenerator.GenerateGraphs(startFrom, endBy, Math.max(repeatUntil, 1));
+        GraphGenerator.GenerateGraphs(startFrom, endBy, Math.max(repeatUntil, 1), binaryFormat);
     }
 
     /**
@@ -46,8 +52,9 @@ public class GraphGenerator {
      * @param startFrom
      * @param endBy
      * @param repeatUntil
+     * @param binaryFormat
      */
-    private static void GenerateGraphs(int startFrom, int endBy, int repeatUntil) 
+    private static void GenerateGraphs(int startFrom, int endBy, int repeatUntil, boolean binaryFormat) 
     {
         long startTime = GraphGenerator.GetTimeInMilliSeconds();
 
@@ -62,10 +69,16 @@ public class GraphGenerator {
                  */
                 int minEdges = n - 1, maxEdges = (n * minEdges) / 2; 
                 int numberOfEdges = GetRandomNumber(minEdges, maxEdges);
-                List<String> graphData = GraphGenerator.CreateGraph(n, numberOfEdges);
+                int source = GetRandomNumber(0, n);
+                int sink = GetRandomSinkNode(source, n);
+                int[][] edgeWeights = GraphGenerator.CreateGraph(n, numberOfEdges, source, sink);
 
-                String fileName = GraphGenerator.GetFileName(n, startTime); // generating filename.
-                GraphGenerator.CreateFile(fileName, graphData); // generating file.
+                String fileName = GraphGenerator.GetFileName(n, startTime, binaryFormat); // generating filename.
+                if (binaryFormat) {
+                    GraphGenerator.CreateBinaryFile(fileName, n, edgeWeights);
+                } else {
+                    GraphGenerator.CreateFile(fileName, GraphGenerator.GetNodeWiseData(n, edgeWeights)); // generating file.
+                }
             }
         }
     }
@@ -74,11 +87,11 @@ public class GraphGenerator {
      * Creates the graph with given number of nodes and edges.
      * @param numberOfNodes
      * @param numberOfEdges
-     * @return The graph data generated.
+     * @param source
+     * @param sink
+     * @return The edge capacities generated.
      */
-    private static List<String> CreateGraph(int numberOfNodes, int numberOfEdges) {
-        int source = GetRandomNumber(0, numberOfNodes);
-        int sink = GetRandomSinkNode(source, numberOfNodes);
+    private static int[][] CreateGraph(int numberOfNodes, int numberOfEdges, int source, int sink) {
         int[][] edgeWeights = InitializeEdgeCapacities(numberOfNodes);
 
         for (int fromNode = 0; fromNode < numberOfNodes; fromNode++) {
@@ -106,7 +119,7 @@ public class GraphGenerator {
             // if (edgeCounter >= numberOfEdges) break;
         }
 
-        return GraphGenerator.GetNodeWiseData(numberOfNodes, edgeWeights);
+        return edgeWeights;
     }
 
     private static List<String> GetNodeWiseData(int numberOfNodes, int[][] edgeWeights) {
@@ -171,6 +184,46 @@ public class GraphGenerator {
         }
     }
 
+    /**
+     * Creates a file in the binary graph format, with the edges of each node in CSR order.
+     * The source and sink are detected by the writer as for the text file, hence the same in both formats.
+     * @param fileName
+     * @param numberOfNodes
+     * @param edgeWeights
+     */
+    private static void CreateBinaryFile(String fileName, int numberOfNodes, int[][] edgeWeights) {
+        int verticesCount = numberOfNodes + 1;
+        int[] offsets = new int[verticesCount + 1];
+        for (int u = 0; u < verticesCount; u++) {
+            offsets[u + 1] = offsets[u];
+            for (int v = 0; v < verticesCount; v++) {
+                if (u != v && edgeWeights[u][v] != Constants.NO_EDGE) {
+                    offsets[u + 1]++;
+                }
+            }
+        }
+
+        int[] targets = new int[offsets[verticesCount]];
+        int[] capacities = new int[offsets[verticesCount]];
+        for (int u = 0, index = 0; u < verticesCount; u++) {
+            for (int v = 0; v < verticesCount; v++) {
+                if (u != v && edgeWeights[u][v] != Constants.NO_EDGE) {
+                    targets[index] = v;
+                    capacities[index++] = edgeWeights[u][v];
+                }
+            }
+        }
+
+        try {
+            Path file = Paths.get(BasePath + "/fileinput/" + fileName);
+            BinaryGraphFormat.Write(file, verticesCount, offsets, targets, capacities);
+            System.out.println(fileName);
+        } catch (IOException e) {
+            System.out.println("An error occurred while creating a file.");
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Gets the time in milliseconds.
      * @return the time.
@@ -183,10 +236,11 @@ public class GraphGenerator {
      * Gets the file name.
      * @param startTime
      * @param nodeCount
+     * @param binaryFormat
      * @return
      */
-    private static String GetFileName(int nodeCount, long startTime) {
-        return startTime + "_" + "graph" + "_" + nodeCount + ".txt";
+    private static String GetFileName(int nodeCount, long startTime, boolean binaryFormat) {
+        return startTime + "_" + "graph" + "_" + nodeCount + (binaryFormat ? ".bin" : ".txt");
     }
 
     /**
@@ -0,0 +1,37 @@
+package networkflow.utils;
+
+/**
+ * The random graph models of the streaming graph generator.
+ * Every model labels the source as node 0 and the sink as the last node, which is the only one
+ * without outward edges, so the input format identifies them the same way.
+ */
+public enum GraphModel {
+    /** Directed G(n, p), each node linking to every other one with probability degree / n. */
+    ERDOS_RENYI("erdos-renyi"),
+    /** Square grid, each node linking to its right and bottom neighbours. */
+    GRID("grid"),
+    /** Source, layers of equal width and sink, each node linking to random nodes of the next layer. */
+    LAYERED_DAG("layered-dag"),
+    /** Chung-Lu graph with power-law expected degrees, low node ids being the hubs. */
+    POWER_LAW("power-law");
+
+    public final String modelName;
+
+    private GraphModel(String modelName) {
+        this.modelName = modelName;
+    }
+
+    /**
+     * Finds the model by its name.
+     * @param modelName
+     * @return
+     */
+    public static GraphModel FromName(String modelName) {
+        for (GraphModel model: GraphModel.values()) {
+            if (model.modelName.equalsIgnoreCase(modelName)) {
+                return model;
+            }
+        }
+        throw new IllegalArgumentException("Unknown graph model: " + modelName);
+    }
+}
@@ -0,0 +1,132 @@
+package networkflow.algorithms.matching;
+
+import java.util.Arrays;
+
+import networkflow.core.BipartiteGraph;
+
+/**
+ * The class for implementing the Hopcroft-Karp maximum bipartite matching algorithm.
+ * Each phase layers the left nodes by BFS from the free ones, alternating unmatched and matched edges,
+ * then augments along a maximal set of vertex-disjoint shortest augmenting paths with an iterative DFS,
+ * where the current-arc pointers make sure every edge is advanced over once per phase.
+ * There are O(sqrt(V)) phases, hence O(E * sqrt(V)) in total.
+ * Reference:
+ * 1. J. E. Hopcroft, R. M. Karp, An n^5/2 algorithm for maximum matchings in bipartite graphs, SIAM J. Comput., 1973.
+ * 2. https://en.wikipedia.org/wiki/Hopcroft%E2%80%93Karp_algorithm
+ */
+public class HopcroftKarp {
+    private static final int UNLAYERED = Integer.MAX_VALUE;
+
+    private HopcroftKarp() {
+    }
+
+    /**
+     * Finds a maximum matching of the bipartite graph.
+     * @param graph
+     * @return
+     */
+    public static MatchingResult Run(BipartiteGraph graph) {
+        int leftCount = graph.getLeftCount();
+        int[] offsets = graph.offsets, adjacentRights = graph.adjacentRights;
+        int[] leftMates = new int[leftCount], rightMates = new int[graph.getRightCount()];
+        int[] layers = new int[leftCount], queue = new int[leftCount];
+        int[] currentArcs = new int[leftCount], path = new int[leftCount];
+        Arrays.fill(leftMates, -1);
+        Arrays.fill(rightMates, -1);
+
+        int size = 0;
+        int freeLayer;
+        while ((freeLayer = HopcroftKarp.BuildLayers(graph, leftMates, rightMates, layers, queue)) != UNLAYERED) {
+            System.arraycopy(offsets, 0, currentArcs, 0, leftCount);
+
+            for (int root = 0; root < leftCount; root++) {
+                if (leftMates[root] != -1) {
+                    continue;
+                }
+                // iterative DFS along the layers, the path holding the left nodes from the root.
+                int depth = 0;
+                path[0] = root;
+                while (depth >= 0) {
+                    int left = path[depth];
+                    if (currentArcs[left] == offsets[left + 1]) { // dead end, removing the node from the layers.
+                        layers[left] = UNLAYERED;
+                        if (--depth >= 0) {
+                            currentArcs[path[depth]]++;
+                        }
+                        continue;
+                    }
+
+                    // only the shortest augmenting paths, ending at a free right node from the free layer.
+                    int right = adjacentRights[currentArcs[left]], nextLeft = rightMates[right];
+                    if (nextLeft == -1 && layers[left] == freeLayer) {
+                        // augmenting path found, flipping the matching along it.
+                        for (int k = depth; k >= 0; k--) {
+                            int pathLeft = path[k], pathRight = adjacentRights[currentArcs[pathLeft]];
+                            leftMates[pathLeft] = pathRight;
+                            rightMates[pathRight] = pathLeft;
+                        }
+                        size++;
+                        break;
+                    } else if (nextLeft != -1 && layers[left] < freeLayer && layers[nextLeft] == layers[left] + 1) {
+                        path[++depth] = nextLeft;
+                    } else {
+                        currentArcs[left]++;
+                    }
+                }
+            }
+        }
+
+        int[] mates = new int[graph.verticesCount];
+        Arrays.fill(mates, -1);
+        for (int left = 0; left < leftCount; left++) {
+            if (leftMates[left] != -1) {
+                int leftNode = graph.leftNodes[left], rightNode = graph.rightNodes[leftMates[left]];
+                mates[leftNode] = rightNode;
+                mates[rightNode] = leftNode;
+            }
+        }
+        return new MatchingResult(size, mates);
+    }
+
+    /**
+     * Layers the left nodes by BFS from the free ones, going to a right node by an unmatched edge
+     * and back to the left by its matched edge, up to the first layer with an edge to a free right node.
+     * returns that layer, ie. the length of the shortest augmenting paths in left nodes, or UNLAYERED if there is none.
+     * @param graph
+     * @param leftMates
+     * @param rightMates
+     * @param layers
+     * @param queue
+     * @return
+     */
+    private static int BuildLayers(BipartiteGraph graph, int[] leftMates, int[] rightMates, int[] layers, int[] queue) {
+        int[] offsets = graph.offsets, adjacentRights = graph.adjacentRights;
+        int head = 0, tail = 0;
+        for (int left = 0; left < layers.length; left++) {
+            if (leftMates[left] == -1) {
+                layers[left] = 0;
+                queue[tail++] = left;
+            } else {
+                layers[left] = UNLAYERED;
+            }
+        }
+
+        int freeLayer = UNLAYERED;
+        while (head < tail) {
+            int left = queue[head++];
+            if (layers[left] > freeLayer) { // deeper layers cannot be on a shortest augmenting path.
+                break;
+            }
+            for (int index = offsets[left]; index < offsets[left + 1]; index++) {
+                int nextLeft = rightMates[adjacentRights[index]];
+                if (nextLeft == -1) {
+                    freeLayer = layers[left];
+                } else if (layers[nextLeft] == UNLAYERED && layers[left] < freeLayer) {
+                    layers[nextLeft] = layers[left] + 1;
+                    queue[tail++] = nextLeft;
+                }
+            }
+        }
+        return freeLayer;
+    }
+}
@@ -0,0 +1,168 @@
+package networkflow.algorithms.maxflow;
+
+import networkflow.algorithms.BreadthFirstSearch;
+import networkflow.algorithms.PathSearch;
+import networkflow.core.ResidualGraph;
+
+/**
+ * The class for keeping a maximum flow up to date while the edge capacities change.
+ * The residual capacities are kept between the updates, so that:
+ * 1. an increase only adds residual capacity to the edge, and augmenting continues from the current flow.
+ * 2. a decrease below the flow of the edge leaves an excess at its tail and a deficit at its head,
+ *    which is first rerouted around the edge (u -> v paths, cancelling the flow cycles through it), and
+ *    otherwise cancelled back to the source (u -> s) and from the sink (t -> v), before augmenting again.
+ * Hence the number of augmenting paths is bounded by the capacity changed, not by the total flow.
+ * Reference:
+ * 1. https://en.wikipedia.org/wiki/Ford%E2%80%93Fulkerson_algorithm
+ * 2. https://cp-algorithms.com/graph/edmonds_karp.html
+ */
+public class IncrementalMaxFlow {
+    private final ResidualGraph residualGraph;
+    private final int source;
+    private final int sink;
+    private final int[] capacities; // current capacity of each arc, the graph keeps the initial ones.
+    private final int[] residualCapacities;
+    private final PathSearch pathSearch;
+    private int maxFlow;
+
+    /**
+     * Solves the initial maximum flow with Dinic's algorithm, which leaves a flow (not a preflow) to start from.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     */
+    public IncrementalMaxFlow(ResidualGraph residualGraph, int source, int sink) {
+        this.residualGraph = residualGraph;
+        this.source = source;
+        this.sink = sink;
+        this.capacities = residualGraph.copyCapacities();
+        this.residualCapacities = residualGraph.copyCapacities();
+        this.pathSearch = BreadthFirstSearch.CreatePathSearch(residualGraph);
+        this.maxFlow = new Dinic().solve(residualGraph, source, sink, this.residualCapacities);
+    }
+
+    public int getMaxFlow() {
+        return this.maxFlow;
+    }
+
+    /**
+     * Gets the residual capacities of the current flow, not to be modified.
+     * @return
+     */
+    public int[] getResidualCapacities() {
+        return this.residualCapacities;
+    }
+
+    /**
+     * Gets the current capacity of the edge, by its index in input order.
+     * @param edge
+     * @return
+     */
+    public int getCapacity(int edge) {
+        return this.capacities[this.getEdgeArc(edge)];
+    }
+
+    /**
+     * Gets the flow on the edge, by its index in input order.
+     * @param edge
+     * @return
+     */
+    public int getFlow(int edge) {
+        int arc = this.getEdgeArc(edge);
+        return this.capacities[arc] - this.residualCapacities[arc];
+    }
+
+    /**
+     * Sets the capacity of the edge and updates the maximum flow, which is returned.
+     * @param edge
+     * @param capacity
+     * @return
+     */
+    public int updateCapacity(int edge, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid input, capacity cannot be negative.");
+        }
+        int arc = this.getEdgeArc(edge), reverseArc = this.residualGraph.reverseArcs[arc];
+        int change = capacity - this.capacities[arc];
+        if (change == 0 || this.source == this.sink) {
+            this.capacities[arc] = capacity;
+            return this.maxFlow;
+        }
+
+        int flow = this.capacities[arc] - this.residualCapacities[arc];
+        this.capacities[arc] = capacity;
+        if (change > 0 || flow <= capacity) { // the current flow still fits.
+            this.residualCapacities[arc] += change;
+        } else {
+            int excess = flow - capacity;
+            this.residualCapacities[arc] = 0;
+            this.residualCapacities[reverseArc] -= excess;
+
+            int tail = this.residualGraph.targets[reverseArc], head = this.residualGraph.targets[arc];
+            excess -= this.augment(tail, head, excess);
+            if (excess > 0) {
+                int cancelledAtSource = tail == this.source ? excess : this.augment(tail, this.source, excess);
+                int cancelledAtSink = head == this.sink ? excess : this.augment(this.sink, head, excess);
+                if (cancelledAtSource != excess || cancelledAtSink != excess) {
+                    throw new IllegalStateException("Invalid operation, the flow could not be cancelled along the edge " + edge);
+                }
+                this.maxFlow -= excess;
+            }
+        }
+
+        this.maxFlow += this.augment(this.source, this.sink, Integer.MAX_VALUE);
+        return this.maxFlow;
+    }
+
+    /**
+     * Sets the capacities of the edges and updates the maximum flow, which is returned.
+     * @param edges
+     * @param capacities
+     * @return
+     */
+    public int updateCapacities(int[] edges, int[] capacities) {
+        if (edges.length != capacities.length) {
+            throw new IllegalArgumentException("Invalid input, every edge needs its capacity.");
+        }
+        for (int index = 0; index < edges.length; index++) {
+            this.updateCapacity(edges[index], capacities[index]);
+        }
+        return this.maxFlow;
+    }
+
+    /**
+     * Pushes up to limit units of flow from one node to another along shortest augmenting paths.
+     * returns the flow pushed.
+     * @param from
+     * @param to
+     * @param limit
+     * @return
+     */
+    private int augment(int from, int to, int limit) {
+        int[] predecessorArcs = this.pathSearch.getPredecessorArcs();
+        int[] reverseArcs = this.residualGraph.reverseArcs, targets = this.residualGraph.targets;
+        int pushed = 0;
+
+        while (pushed < limit && this.pathSearch.search(from, to, this.residualCapacities)) {
+            int pathMaxFlow = limit - pushed;
+            for (int u = to; u != from; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                pathMaxFlow = Math.min(pathMaxFlow, this.residualCapacities[predecessorArcs[u]]);
+            }
+            for (int u = to; u != from; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                int arc = predecessorArcs[u];
+                this.residualCapacities[arc] -= pathMaxFlow;
+                this.residualCapacities[reverseArcs[arc]] += pathMaxFlow;
+            }
+            pushed += pathMaxFlow;
+        }
+
+        return pushed;
+    }
+
+    private int getEdgeArc(int edge) {
+        if (edge < 0 || edge >= this.residualGraph.edgeArcs.length) {
+            throw new IllegalArgumentException("Invalid input, no edge with index " + edge);
+        }
+        return this.residualGraph.edgeArcs[edge];
+    }
+}
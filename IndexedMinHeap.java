@@ -0,0 +1,120 @@
+package networkflow.utils;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over the node ids 0 .. capacity - 1 with long keys, on primitive arrays!
+ * The position of every node in the heap is tracked, so that its key can be decreased in O(log n),
+ * as Dijkstra's algorithm needs, without boxing or duplicate entries.
+ */
+public class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] positions; // -1 when the node is not in the heap.
+    private final long[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new long[capacity];
+        Arrays.fill(this.positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean contains(int node) {
+        return this.positions[node] >= 0;
+    }
+
+    public long getKey(int node) {
+        return this.keys[node];
+    }
+
+    /**
+     * Removes all the nodes, in O(size).
+     */
+    public void clear() {
+        for (int index = 0; index < this.size; index++) {
+            this.positions[this.heap[index]] = -1;
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Inserts the node with the key, or decreases its key if it is already in the heap with a larger one.
+     * @param node
+     * @param key
+     */
+    public void insertOrDecrease(int node, long key) {
+        int position = this.positions[node];
+        if (position < 0) {
+            position = this.size++;
+            this.heap[position] = node;
+            this.positions[node] = position;
+        } else if (key >= this.keys[node]) {
+            return;
+        }
+        this.keys[node] = key;
+        this.siftUp(position);
+    }
+
+    /**
+     * Removes and returns the node with the smallest key.
+     * @return
+     */
+    public int popMin() {
+        if (this.size == 0) {
+            throw new IllegalStateException("Invalid operation, the heap is empty.");
+        }
+        int minNode = this.heap[0];
+        this.positions[minNode] = -1;
+        if (--this.size > 0) {
+            int lastNode = this.heap[this.size];
+            this.heap[0] = lastNode;
+            this.positions[lastNode] = 0;
+            this.siftDown(0);
+        }
+        return minNode;
+    }
+
+    private void siftUp(int position) {
+        int node = this.heap[position];
+        long key = this.keys[node];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1, parentNode = this.heap[parent];
+            if (this.keys[parentNode] <= key) {
+                break;
+            }
+            this.heap[position] = parentNode;
+            this.positions[parentNode] = position;
+            position = parent;
+        }
+        this.heap[position] = node;
+        this.positions[node] = position;
+    }
+
+    private void siftDown(int position) {
+        int node = this.heap[position];
+        long key = this.keys[node];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= this.size) {
+                break;
+            }
+            if (child + 1 < this.size && this.keys[this.heap[child + 1]] < this.keys[this.heap[child]]) {
+                child++;
+            }
+            int childNode = this.heap[child];
+            if (this.keys[childNode] >= key) {
+                break;
+            }
+            this.heap[position] = childNode;
+            this.positions[childNode] = position;
+            position = child;
+        }
+        this.heap[position] = node;
+        this.positions[node] = position;
+    }
+}
@@ -0,0 +1,31 @@
+package networkflow.utils;
+
+/**
+ * The logging levels of the program.
+ */
+public enum LogLevel {
+    /** Only the results are printed, the default. */
+    QUIET("quiet"),
+    /** Also the input, the built graph and every augmenting path, for teaching on small graphs. */
+    TRACE("trace");
+
+    public final String levelName;
+
+    private LogLevel(String levelName) {
+        this.levelName = levelName;
+    }
+
+    /**
+     * Finds the level by its name.
+     * @param levelName
+     * @return
+     */
+    public static LogLevel FromName(String levelName) {
+        for (LogLevel level: LogLevel.values()) {
+            if (level.levelName.equalsIgnoreCase(levelName)) {
+                return level;
+            }
+        }
+        throw new IllegalArgumentException("Unknown log level: " + levelName);
+    }
+}
@@ -0,0 +1,140 @@
+package networkflow.algorithms.maxflow;
+
+import java.util.Arrays;
+
+import networkflow.core.GraphAccess;
+import networkflow.core.ResidualCapacities;
+
+/**
+ * The class for implementing the Dinic's max-flow algorithm on 64-bit capacities.
+ * Same phases as Dinic, with the residual capacities and the flow kept in longs, and the arcs indexed by longs
+ * and read through the GraphAccess, so that it runs off-heap too, only the O(V) per-node arrays living on the heap.
+ * Reference:
+ * 1. https://cp-algorithms.com/graph/dinic.html
+ */
+public class LongDinic implements LongMaxFlowSolver {
+    private int[] levels;
+    private int[] queue;
+    private long[] currentArcs;
+    private long[] pathArcs;
+
+    @Override
+    public long solve(GraphAccess graph, int source, int sink, ResidualCapacities residualCapacities) {
+        int verticesCount = graph.getVerticesCount();
+        if (verticesCount <= 0 || source == sink) return 0;
+
+        // the scratch arrays are kept across the solves on graphs of the same size.
+        if (this.levels == null || this.levels.length != verticesCount) {
+            this.levels = new int[verticesCount];
+            this.queue = new int[verticesCount];
+            this.currentArcs = new long[verticesCount];
+            this.pathArcs = new long[verticesCount];
+        }
+
+        long maxFlow = 0;
+        while (this.buildLevelGraph(graph, source, sink, residualCapacities)) {
+            for (int u = 0; u < verticesCount; u++) {
+                this.currentArcs[u] = graph.getFirstArc(u);
+            }
+            maxFlow += this.pushBlockingFlow(graph, source, sink, residualCapacities);
+        }
+
+        return maxFlow;
+    }
+
+    /**
+     * Labels each node with its BFS distance from the source over the arcs with residual capacity.
+     * returns true if the sink got a level, ie. is reachable.
+     * @param graph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @return
+     */
+    private boolean buildLevelGraph(GraphAccess graph, int source, int sink, ResidualCapacities residualCapacities) {
+        Arrays.fill(this.levels, -1);
+
+        int head = 0, tail = 0;
+        this.queue[tail++] = source;
+        this.levels[source] = 0;
+
+        while (head < tail) {
+            int currentNode = this.queue[head++];
+            long end = graph.getFirstArc(currentNode + 1);
+            for (long arc = graph.getFirstArc(currentNode); arc < end; arc++) {
+                int adjacentNode = graph.getTarget(arc);
+                if (this.levels[adjacentNode] < 0 && residualCapacities.get(arc) > 0) {
+                    this.levels[adjacentNode] = this.levels[currentNode] + 1;
+                    // nodes beyond the sink level can never be on a shortest path, so stopping here.
+                    if (adjacentNode == sink) {
+                        return true;
+                    }
+                    this.queue[tail++] = adjacentNode;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Finds the blocking flow of the level graph with an iterative DFS.
+     * After an augmentation, the search retreats only to the tail of the first saturated arc.
+     * @param graph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @return
+     */
+    private long pushBlockingFlow(GraphAccess graph, int source, int sink, ResidualCapacities residualCapacities) {
+        long blockingFlow = 0;
+        int depth = 0, currentNode = source;
+
+        while (true) {
+            if (currentNode == sink) {
+                long bottleneckCapacity = Long.MAX_VALUE;
+                for (int i = 0; i < depth; i++) {
+                    bottleneckCapacity = Math.min(bottleneckCapacity, residualCapacities.get(this.pathArcs[i]));
+                }
+
+                int firstSaturated = -1;
+                for (int i = 0; i < depth; i++) {
+                    long arc = this.pathArcs[i];
+                    residualCapacities.push(arc, graph.getReverseArc(arc), bottleneckCapacity);
+                    if (firstSaturated < 0 && residualCapacities.get(arc) == 0) {
+                        firstSaturated = i;
+                    }
+                }
+                blockingFlow += bottleneckCapacity;
+
+                depth = firstSaturated;
+                currentNode = depth == 0 ? source : graph.getTarget(this.pathArcs[depth - 1]);
+                continue;
+            }
+
+            // advancing along the current arc, skipping the arcs which are saturated or not in the level graph.
+            long arc = this.currentArcs[currentNode], end = graph.getFirstArc(currentNode + 1);
+            int nextLevel = this.levels[currentNode] + 1;
+            while (arc < end && (residualCapacities.get(arc) <= 0 || this.levels[graph.getTarget(arc)] != nextLevel)) {
+                arc++;
+            }
+            this.currentArcs[currentNode] = arc;
+
+            if (arc < end) {
+                this.pathArcs[depth++] = arc;
+                currentNode = graph.getTarget(arc);
+            } else {
+                // dead end, removing the node from the level graph and retreating.
+                this.levels[currentNode] = -1;
+                if (currentNode == source) {
+                    break;
+                }
+                long previousArc = this.pathArcs[--depth];
+                currentNode = graph.getArcSource(previousArc);
+                this.currentArcs[currentNode]++;
+            }
+        }
+
+        return blockingFlow;
+    }
+}
@@ -0,0 +1,44 @@
+package networkflow.algorithms.maxflow;
+
+import networkflow.algorithms.BreadthFirstSearch;
+import networkflow.algorithms.BreadthFirstSearchWorkspace;
+import networkflow.core.GraphAccess;
+import networkflow.core.ResidualCapacities;
+
+/**
+ * The class for implementing the ford-fulkerson max-flow algorithm using BFS on 64-bit capacities.
+ * Same augmenting paths as FordFulkerson, with the residual capacities and the flow kept in longs,
+ * and the arcs read through the GraphAccess, so that it runs off-heap too.
+ */
+public class LongFordFulkerson implements LongMaxFlowSolver {
+
+    @Override
+    public long solve(GraphAccess graph, int source, int sink, ResidualCapacities rCapacities) {
+        int verticesCount = graph.getVerticesCount();
+        if (verticesCount <= 0 || source == sink) return 0;
+
+        long maxFlow = 0;
+
+        BreadthFirstSearchWorkspace workspace = new BreadthFirstSearchWorkspace(verticesCount);
+        long[] predecessorArcs = new long[verticesCount];
+
+        while (BreadthFirstSearch.Run(graph, source, sink, rCapacities, workspace, predecessorArcs)) {
+
+            long pathMaxFlow = Long.MAX_VALUE;
+            for (int u = sink; u != source; u = graph.getArcSource(predecessorArcs[u])) {
+                pathMaxFlow = Math.min(pathMaxFlow, rCapacities.get(predecessorArcs[u]));
+            }
+
+            // updating the capacities of arcs along the path and of their paired reverse arcs.
+            for (int u = sink; u != source; u = graph.getArcSource(predecessorArcs[u])) {
+                long arc = predecessorArcs[u];
+                rCapacities.push(arc, graph.getReverseArc(arc), pathMaxFlow);
+            }
+
+            // Add path flow to overall flow
+            maxFlow += pathMaxFlow;
+        }
+
+        return maxFlow;
+    }
+}
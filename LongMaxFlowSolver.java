@@ -0,0 +1,32 @@
+package networkflow.algorithms.maxflow;
+
+import networkflow.core.GraphAccess;
+import networkflow.core.ResidualCapacities;
+
+/**
+ * Common interface of the max-flow engines working on 64-bit capacities, read through the GraphAccess,
+ * so that they run on the LongResidualGraph as well as on the OffHeapGraph.
+ */
+public interface LongMaxFlowSolver {
+    /**
+     * Pushes the maximum flow from source to sink.
+     * the residual capacities are updated in place, and the flow pushed by this call is returned.
+     * @param graph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @return
+     */
+    long solve(GraphAccess graph, int source, int sink, ResidualCapacities residualCapacities);
+
+    /**
+     * Solves on fresh residual capacities, created in the storage of the graph.
+     * @param graph
+     * @param source
+     * @param sink
+     * @return
+     */
+    default long solve(GraphAccess graph, int source, int sink) {
+        return this.solve(graph, source, sink, graph.createResidualCapacities());
+    }
+}
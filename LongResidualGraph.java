@@ -0,0 +1,129 @@
+package networkflow.core;
+
+import java.util.List;
+
+/**
+ * Residual graph in CSR form with 64-bit capacities, for graphs whose total capacity does not fit in an int!
+ * The layout is the same as ResidualGraph's, only the capacities are longs, so the int graph stays the fast path.
+ * It is read through GraphAccess, like the off-heap graph, so the 64-bit solvers run on both.
+ */
+public class LongResidualGraph implements GraphAccess {
+    public final int verticesCount;
+    public final int[] offsets;
+    public final int[] targets;
+    public final long[] capacities;
+    public final int[] reverseArcs;
+    public final int[] edgeArcs; // edge index (input order) -> forward arc index.
+
+    private LongResidualGraph(int verticesCount, int arcsCount, int edgesCount) {
+        this.verticesCount = verticesCount;
+        this.offsets = new int[verticesCount + 1];
+        this.targets = new int[arcsCount];
+        this.capacities = new long[arcsCount];
+        this.reverseArcs = new int[arcsCount];
+        this.edgeArcs = new int[edgesCount];
+    }
+
+    /**
+     * Builds the residual graph from the edge list with a counting sort on the tail node.
+     * @param verticesCount
+     * @param edges
+     * @return
+     */
+    public static LongResidualGraph FromEdges(int verticesCount, List<Edge> edges) {
+        LongResidualGraph graph = new LongResidualGraph(verticesCount, 2 * edges.size(), edges.size());
+
+        // counting arcs per node, forward arc at the tail and backward arc at the head.
+        for (Edge edge: edges) {
+            graph.offsets[edge.fromNode + 1]++;
+            graph.offsets[edge.toNode + 1]++;
+        }
+        for (int u = 0; u < verticesCount; u++) {
+            graph.offsets[u + 1] += graph.offsets[u];
+        }
+
+        int[] nextArc = new int[verticesCount];
+        System.arraycopy(graph.offsets, 0, nextArc, 0, verticesCount);
+
+        int edgeIndex = 0;
+        for (Edge edge: edges) {
+            int forward = nextArc[edge.fromNode]++;
+            int backward = nextArc[edge.toNode]++;
+
+            graph.targets[forward] = edge.toNode;
+            graph.capacities[forward] = edge.capacity;
+            graph.reverseArcs[forward] = backward;
+
+            graph.targets[backward] = edge.fromNode;
+            graph.capacities[backward] = 0;
+            graph.reverseArcs[backward] = forward;
+
+            graph.edgeArcs[edgeIndex++] = forward;
+        }
+
+        return graph;
+    }
+
+    @Override
+    public int getVerticesCount() {
+        return this.verticesCount;
+    }
+
+    @Override
+    public long getArcsCount() {
+        return this.targets.length;
+    }
+
+    @Override
+    public long getFirstArc(int node) {
+        return this.offsets[node];
+    }
+
+    @Override
+    public int getTarget(long arc) {
+        return this.targets[(int) arc];
+    }
+
+    @Override
+    public long getReverseArc(long arc) {
+        return this.reverseArcs[(int) arc];
+    }
+
+    @Override
+    public long getCapacity(long arc) {
+        return this.capacities[(int) arc];
+    }
+
+    @Override
+    public int getArcSource(long arc) {
+        return this.targets[this.reverseArcs[(int) arc]];
+    }
+
+    /**
+     * Creates a fresh copy of the initial capacities, to be used as residual capacities by a solver.
+     * @return
+     */
+    public long[] copyCapacities() {
+        return this.capacities.clone();
+    }
+
+    /**
+     * Creates the residual capacities on a fresh copy of the initial capacities.
+     * @return
+     */
+    @Override
+    public ResidualCapacities createResidualCapacities() {
+        long[] residualCapacities = this.copyCapacities();
+        return new ResidualCapacities() {
+            @Override
+            public long get(long arc) {
+                return residualCapacities[(int) arc];
+            }
+
+            @Override
+            public void set(long arc, long capacity) {
+                residualCapacities[(int) arc] = capacity;
+            }
+        };
+    }
+}
@@ -2,21 +2,45 @@ package networkflow;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.OptionalInt;
+import java.util.NoSuchElementException;
 import java.util.Stack;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import networkflow.algorithms.BidirectionalBreadthFirstSearch;
 import networkflow.algorithms.BreadthFirstSearch;
-import networkflow.algorithms.maxflow.FordFulkerson;
+import networkflow.algorithms.BreadthFirstSearchWorkspace;
+import networkflow.algorithms.PathSearch;
+import networkflow.algorithms.circulation.Circulation;
+import networkflow.algorithms.circulation.CirculationProblem;
+import networkflow.algorithms.circulation.CirculationResult;
+import networkflow.algorithms.matching.HopcroftKarp;
+import networkflow.algorithms.matching.MatchingResult;
+import networkflow.algorithms.maxflow.BatchMaxFlowSolver;
+import networkflow.algorithms.maxflow.LongMaxFlowSolver;
+import networkflow.algorithms.maxflow.MaxFlowEngine;
+import networkflow.algorithms.maxflow.MaxFlowResult;
+import networkflow.algorithms.maxflow.MaxFlowSolver;
+import networkflow.algorithms.mincostflow.MinCostFlowResult;
+import networkflow.algorithms.mincostflow.SuccessiveShortestPath;
+import networkflow.core.BipartiteGraph;
 import networkflow.core.FlowGraph;
+import networkflow.core.GraphAccess;
+import networkflow.core.LongResidualGraph;
+import networkflow.core.ReducedGraph;
+import networkflow.core.ResidualGraph;
+import networkflow.utils.FlowMetrics;
+import networkflow.utils.LogLevel;
+import networkflow.utils.TraceLog;
 
 /**
  * Main class, the entrance class!
@@ -26,19 +50,35 @@ public class Main
 {
     private static final String BFS = "-b", 
                                 MAXFLOW = "-f", 
-                                CIRCULATIONPROBLEM = "-c";
+                                BATCH_MAXFLOW = "-q",
+                                MINCOSTFLOW = "-m",
+                                CIRCULATIONPROBLEM = "-c",
+                                TRACE = "--trace",
+                                METRICS = "--metrics";
 
     public static void main( String[] args )
     {
+        // quiet by default, the trace prints the input, the graph and every augmenting path.
+        boolean printMetrics = false;
+        while (args.length > 0 && (TRACE.equals(args[0]) || METRICS.equals(args[0]))) {
+            if (TRACE.equals(args[0])) {
+                TraceLog.SetLevel(LogLevel.TRACE);
+            } else {
+                printMetrics = true;
+            }
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
         if (args.length < 2) {
-            System.out.println("Invalid arguments: Use {program} -option input_text_file");
+            System.out.println("Invalid arguments: Use {program} [--trace] [--metrics] -option input_text_file");
             return;    
         }
         try (BufferedReader reader = new BufferedReader(new FileReader(args[1]))) 
         {            
+            // the graph modes map the input file directly, only the circulation problem reads the lines as tokens.
             List<String[]> lineWiseInput = new ArrayList<>();
-            if (List.of(BFS, MAXFLOW, CIRCULATIONPROBLEM).contains(args[0])) {                
+            if (CIRCULATIONPROBLEM.equals(args[0])) {
                 lineWiseInput = ReadFileInput(reader, lineWiseInput);
+                TraceLog.Flush();
             }
 
             Instant starts, ends;
@@ -50,19 +90,41 @@ public class Main
                         }                        
                         int source = Integer.parseInt(args[2]);
                         int sink = Integer.parseInt(args[3]);
+                        boolean hasReachablePath;
+                        Integer[] nodesInShortestPath = null;
 
                         // Creating graph with first node as source and last as sink.
                         FlowGraph graphForBFS = new FlowGraph();
-                        graphForBFS.buildGraph(lineWiseInput);
-                        Map<Integer, Integer> pathTracker = new HashMap<>();
+                        graphForBFS.buildGraph(Paths.get(args[1]));
+                        if (graphForBFS.hasLongCapacities()) {
+                            // 64-bit capacities, searching from the source only.
+                            LongResidualGraph longResidualGraphForBFS = graphForBFS.getLongResidualGraph();
+                            long[] longPredecessorArcs = new long[longResidualGraphForBFS.verticesCount];
 
-                        starts = Instant.now();
-                        boolean hasReachablePath = BreadthFirstSearch.Run(graphForBFS.getAdjacentList(), source, sink, graphForBFS.getCapacityGraph(), pathTracker);
-                        ends = Instant.now();
+                            starts = Instant.now();
+                            hasReachablePath = BreadthFirstSearch.Run(longResidualGraphForBFS, source, sink, longResidualGraphForBFS.getCapacities(), 
+                                new BreadthFirstSearchWorkspace(longResidualGraphForBFS.verticesCount), longPredecessorArcs);
+                            ends = Instant.now();
+                            if (hasReachablePath) {
+                                nodesInShortestPath = Main.TraceBFSTraversalPath(longResidualGraphForBFS, longPredecessorArcs, source, sink);
+                            }
+                        } else {
+                            ResidualGraph residualGraphForBFS = graphForBFS.getResidualGraph();
+                            // searching from the source and the sink at the same time.
+                            PathSearch pathSearch = new BidirectionalBreadthFirstSearch(residualGraphForBFS);
+
+                            starts = Instant.now();
+                            hasReachablePath = pathSearch.search(source, sink, residualGraphForBFS.capacities);
+                            ends = Instant.now();
+                            if (hasReachablePath) {
+                                // Tracking nodes which are part of shortest path into a stack.
+                                nodesInShortestPath = Main.TraceBFSTraversalPath(residualGraphForBFS.targets, residualGraphForBFS.reverseArcs, 
+                                    pathSearch.getPredecessorArcs(), source, sink);
+                            }
+                        }
+                        TraceLog.Flush();
 
                         if (hasReachablePath) { 
-                            // Tracking nodes which are part of shortest path into a stack and printing them out.
-                            Integer[] nodesInShortestPath = Main.TraceBFSTraversalPath(pathTracker, source, sink);
                             String formattedShortestPath = Arrays.stream(nodesInShortestPath)
                                                                  .map(String::valueOf)
                                                                  .collect(Collectors.joining(", "));
@@ -75,60 +137,178 @@ public class Main
                     break;
 
                 case MAXFLOW:
+                        if (args.length > 3) {
+                            System.out.println("Invalid arguments: Use {program} -f input_text_file [engine]");
+                            return;
+                        }
+                        // Picking the max-flow engine, edmonds-karp (ford-fulkerson with BFS) by default.
+                        MaxFlowEngine engine = args.length == 3 ? MaxFlowEngine.FromName(args[2]) : MaxFlowEngine.EDMONDS_KARP;
+
                         // Creating graph with first node as source and last but one as sink (since zero-based start and empty line for sink node).
+                        // the metrics are only collected when printed or recorded by the flight recorder.
+                        FlowMetrics metrics = printMetrics || FlowMetrics.IsRecording() ? new FlowMetrics() : null;
                         FlowGraph graphForMaxFlow = new FlowGraph();
-                        graphForMaxFlow.buildGraph(lineWiseInput);
+                        graphForMaxFlow.buildGraph(Paths.get(args[1]), metrics);
+                        long maxFlow;
+                        // without an engine asked for, unit bipartite instances are solved as a matching.
+                        BipartiteGraph bipartiteGraph = args.length == 2 ? graphForMaxFlow.detectBipartiteMatching() : null;
+                        MatchingResult matching = null;
+
+                        if (bipartiteGraph == null && graphForMaxFlow.hasLongCapacities() && !engine.supportsLongCapacities()) {
+                            System.out.println("Invalid arguments: capacities beyond the int range are solved with the 64-bit engines only, edmonds-karp or dinic.");
+                            return;
+                        }
 
+                        // pruning, merging and contracting the int graph first, unless the trace shows the paths in input node ids.
+                        // the reduction is part of the timed solve, the flows are only mapped back to the input edges for the metrics.
+                        ReducedGraph reducedGraph = null;
+                        int[] reducedResidualCapacities = null;
                         starts = Instant.now();
-                        int maxFlow = FordFulkerson.Run(graphForMaxFlow.getAdjacentList(), graphForMaxFlow.getSource(), graphForMaxFlow.getSink(), graphForMaxFlow.getCapacityGraph());
+                        if (bipartiteGraph == null && !graphForMaxFlow.hasLongCapacities() && !TraceLog.IsTraceEnabled()) {
+                            long reduceStart = System.nanoTime();
+                            reducedGraph = ReducedGraph.Reduce(graphForMaxFlow);
+                            if (metrics != null) {
+                                metrics.recordPhase(FlowMetrics.Phase.REDUCE, reduceStart);
+                            }
+                        }
+
+                        long solveStart = System.nanoTime();
+                        if (bipartiteGraph != null) {
+                            matching = HopcroftKarp.Run(bipartiteGraph);
+                            maxFlow = matching.size;
+                        } else if (graphForMaxFlow.hasLongCapacities()) {
+                            // the total capacity, hence the flow, may exceed the int range, solving with the 64-bit engine.
+                            LongMaxFlowSolver longSolver = engine.createLongSolver();
+                            maxFlow = longSolver.solve(graphForMaxFlow.getLongResidualGraph(), graphForMaxFlow.getSource(), graphForMaxFlow.getSink());
+                        } else if (reducedGraph != null) {
+                            MaxFlowSolver solver = engine.createSolver();
+                            solver.setMetrics(metrics);
+                            reducedResidualCapacities = reducedGraph.residualGraph.copyCapacities();
+                            maxFlow = solver.solve(reducedGraph.residualGraph, reducedGraph.source, reducedGraph.sink, reducedResidualCapacities);
+                        } else {
+                            MaxFlowSolver solver = engine.createSolver();
+                            solver.setMetrics(metrics);
+                            maxFlow = solver.solve(graphForMaxFlow.getResidualGraph(), graphForMaxFlow.getSource(), graphForMaxFlow.getSink());
+                        }
                         ends = Instant.now();
+                        if (metrics != null) {
+                            metrics.recordPhase(FlowMetrics.Phase.SOLVE, solveStart);
+                        }
+                        if (matching != null && TraceLog.IsTraceEnabled()) {
+                            TraceLog.TraceLine("Matching (left -> right):");
+                            for (int leftNode: bipartiteGraph.leftNodes) {
+                                if (matching.mates[leftNode] != -1) {
+                                    TraceLog.TraceLine(leftNode + " -> " + matching.mates[leftNode]);
+                                }
+                            }
+                        }
+                        TraceLog.Flush();
                         
                         System.out.println("Maximum flow: " + maxFlow);
+                        if (matching != null) {
+                            System.out.println("Bipartite matching instance, matched pairs (hopcroft-karp): " + matching.size);
+                        }
                         System.out.println("Duration (in seconds): " + Duration.between(starts, ends).toString().substring(2));
+                        if (metrics != null) {
+                            if (printMetrics) {
+                                if (reducedGraph != null) {
+                                    MaxFlowResult reducedResult = MaxFlowResult.FromResidual(reducedGraph.residualGraph, reducedGraph.source, reducedGraph.sink, 
+                                        (int) maxFlow, reducedResidualCapacities);
+                                    int[] inputEdgeFlows = reducedGraph.expandEdgeFlows(reducedResult.edgeFlows);
+                                    System.out.println("Reduced graph (V, E): (" + reducedGraph.residualGraph.verticesCount + ", " + reducedGraph.getEdgesCount() 
+                                        + ") from (" + graphForMaxFlow.vertices.size() + ", " + graphForMaxFlow.getEdgesCount() + ")");
+                                    System.out.println("Input edges carrying flow: " + Arrays.stream(inputEdgeFlows).filter(flow -> flow > 0).count() 
+                                        + " of " + inputEdgeFlows.length);
+                                }
+                                System.out.println("Metrics: " + metrics.toJson());
+                            }
+                            metrics.commitEvent(matching != null ? "hopcroft-karp" : engine.engineName);
+                        }
                     break;
                         
-                case CIRCULATIONPROBLEM:                    
-                        // Check if input supply meets demand, else no point in solving.
-                        OptionalInt total = GetSumOfSupplyDemandValues(lineWiseInput);
-                        if (total.isPresent()) {
-                            int totalValue = total.getAsInt();
-                            if (totalValue != 0) {
-                                String reason = totalValue < 0 ? "supply > demand" : "demand > supply";                      
-                                System.out.println("No, it does not have a circulation. For this problem: " + reason);
-                            }
-                            else {
-                                int totalSupply = lineWiseInput.stream().filter(e -> e.length > 0)
-                                                      .mapToInt(e -> Integer.parseInt(e[0]))
-                                                      .filter(e -> e < 0)
-                                                      .reduce((supplyValue, accumulator) -> accumulator + supplyValue)
-                                                      .getAsInt();        
-                                lineWiseInput = UpdateCirculationGraphInput(lineWiseInput);
-    
-                                // HANDLE the no out bound edges.
-                                FlowGraph graph = new FlowGraph();
-                                graph.buildGraph(lineWiseInput);
-                                
-                                starts = Instant.now();
-                                int maxNetFlow = FordFulkerson.Run(graph.getAdjacentList(), graph.getSource(), graph.getSink(), graph.getCapacityGraph());
-                                ends = Instant.now();
-                                if (maxNetFlow == -totalSupply) { // since total-supply = total-demand, checking with supply here, which is negative.                       
-                                    System.out.println("Yes, it has a circulation.");
-                                } else {
-                                    System.out.println("No, it does not have a circulation. Reason: the minimum cut.");
-                                }
-    
-                                System.out.println("Duration (in seconds): " + Duration.between(starts, ends).toString().substring(2));
+                case MINCOSTFLOW:
+                        if (args.length != 2) {
+                            System.out.println("Invalid arguments: Use {program} -m input_text_file, with edges as adjacent_node capacity:cost");
+                            return;
+                        }
+                        FlowGraph graphForMinCostFlow = new FlowGraph();
+                        graphForMinCostFlow.buildGraph(Paths.get(args[1]));
+
+                        starts = Instant.now();
+                        MinCostFlowResult minCostFlow = new SuccessiveShortestPath().solve(graphForMinCostFlow.getResidualGraph(), graphForMinCostFlow.getSource(), graphForMinCostFlow.getSink());
+                        ends = Instant.now();
+                        TraceLog.Flush();
+
+                        System.out.println("Maximum flow: " + minCostFlow.flow);
+                        System.out.println("Minimum cost: " + minCostFlow.cost);
+                        System.out.println("Duration (in seconds): " + Duration.between(starts, ends).toString().substring(2));
+                    break;
+
+                case BATCH_MAXFLOW:
+                        if (args.length != 3 && args.length != 4) {
+                            System.out.println("Invalid arguments: Use {program} -q input_text_file queries_text_file [engine]");
+                            return;
+                        }
+                        MaxFlowEngine batchEngine = args.length == 4 ? MaxFlowEngine.FromName(args[3]) : MaxFlowEngine.EDMONDS_KARP;
+
+                        // loading the graph once, then solving the "source sink" lines of the queries file on all the cores.
+                        FlowGraph graphForBatch = new FlowGraph();
+                        graphForBatch.buildGraph(Paths.get(args[1]));
+
+                        starts = Instant.now();
+                        try (BufferedReader queriesReader = new BufferedReader(new FileReader(args[2]));
+                             BatchMaxFlowSolver batchSolver = new BatchMaxFlowSolver(graphForBatch.getResidualGraph(), batchEngine, Runtime.getRuntime().availableProcessors())) {
+                            batchSolver.solve(Main.ReadQueries(queriesReader), result -> 
+                                System.out.println("Query " + result.queryIndex + ": " + result.source + " -> " + result.sink + ", maximum flow: " + result.maxFlow));
+                        }
+                        ends = Instant.now();
+                        TraceLog.Flush();
+
+                        System.out.println("Duration (in seconds): " + Duration.between(starts, ends).toString().substring(2));
+                    break;
+
+                case CIRCULATIONPROBLEM:
+                        if (args.length > 3) {
+                            System.out.println("Invalid arguments: Use {program} -c input_text_file [engine], with lines as demand adjacent_node [lower_bound..]capacity ...");
+                            return;
+                        }
+                        if (lineWiseInput.stream().allMatch(tokens -> tokens.length == 0)) {
+                            System.out.println("Invalid input, please provide valid input.");
+                            return;
+                        }
+                        MaxFlowEngine circulationEngine = args.length == 3 ? MaxFlowEngine.FromName(args[2]) : MaxFlowEngine.EDMONDS_KARP;
+                        CirculationProblem problem = Main.ReadCirculationProblem(lineWiseInput);
+
+                        starts = Instant.now();
+                        CirculationResult circulation = Circulation.Solve(problem, circulationEngine);
+                        ends = Instant.now();
+                        if (circulation.feasible && TraceLog.IsTraceEnabled()) {
+                            TraceLog.TraceLine("Circulation (edge flows):");
+                            for (int edge = 0; edge < problem.getEdgesCount(); edge++) {
+                                TraceLog.TraceLine(problem.getFromNode(edge) + " -> " + problem.getToNode(edge) + ": " + circulation.edgeFlows[edge]);
                             }
+                        }
+                        TraceLog.Flush();
+
+                        if (circulation.feasible) {
+                            System.out.println("Yes, it has a circulation.");
+                        } else if (problem.getTotalDemand() != 0) {
+                            String reason = circulation.violation < 0 ? "supply > demand" : "demand > supply";
+                            System.out.println("No, it does not have a circulation. For this problem: " + reason);
                         } else {
-                            System.out.println("Invalid input, please provide valid input.");
+                            System.out.println("No, it does not have a circulation. Reason: the demand of the nodes " + Main.FormatNodeSet(circulation.violatingSet) 
+                                + " exceeds by " + circulation.violation + " what can flow into them, cut edges: " + Main.FormatCirculationCut(problem, circulation));
                         }
-                    break;                        
+
+                        System.out.println("Duration (in seconds): " + Duration.between(starts, ends).toString().substring(2));
+                    break;
                 default:
                         System.out.println("Invalid input, please follow the pattern: program -option inputfile");
                     break;
             }
         }
         catch (Exception ex) {
+            TraceLog.Flush();
             ex.printStackTrace();
         }
     }
@@ -143,25 +323,67 @@ public class Main
     private static List<String[]> ReadFileInput(BufferedReader reader, List<String[]> lineWiseInput) throws Exception {
         String line;
         while ((line = reader.readLine()) != null) {
-            System.out.println(line);
+            TraceLog.TraceLine(line);
             lineWiseInput.add(!line.isEmpty() ? line.split(" ") : new String[0]);
         }
         return lineWiseInput;
     }
 
+    /**
+     * Reads the "source sink" queries lazily, one per non-empty line.
+     * @param reader
+     * @return
+     */
+    private static Iterator<int[]> ReadQueries(BufferedReader reader) {
+        return new Iterator<int[]>() {
+            private String nextLine = this.readLine();
+
+            @Override
+            public boolean hasNext() {
+                return this.nextLine != null;
+            }
+
+            @Override
+            public int[] next() {
+                if (this.nextLine == null) {
+                    throw new NoSuchElementException();
+                }
+                String[] tokens = this.nextLine.trim().split("\\s+");
+                if (tokens.length != 2) {
+                    throw new IllegalArgumentException("Invalid input, query should be: source_node destination_node");
+                }
+                this.nextLine = this.readLine();
+                return new int[] { Integer.parseInt(tokens[0]), Integer.parseInt(tokens[1]) };
+            }
+
+            private String readLine() {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null && line.trim().isEmpty()) {
+                    }
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
     /**
      * Traces the BFS traversal path and returns the nodes in the path in order.
+     * @param arcTargets
+     * @param reverseArcs
      * @param pathTracker
      * @param sourceNode
      * @param lastVisitedNode
      * @return
      */
-    private static Integer[] TraceBFSTraversalPath(Map<Integer, Integer> pathTracker, Integer sourceNode, Integer lastVisitedNode) {
+    private static Integer[] TraceBFSTraversalPath(int[] arcTargets, int[] reverseArcs, int[] pathTracker, int sourceNode, int lastVisitedNode) {
         // tracing the visited nodes by using a stack.
         Stack<Integer> pathTracer = new Stack<Integer>();                            
         do {
             pathTracer.push(lastVisitedNode);
-            lastVisitedNode = pathTracker.get(lastVisitedNode);
+            lastVisitedNode = arcTargets[reverseArcs[pathTracker[lastVisitedNode]]]; // tail of the arc.
         } while (lastVisitedNode != sourceNode);
         pathTracer.push(sourceNode);                   
         
@@ -176,119 +398,77 @@ public class Main
     }
 
     /**
-     * calculates total of supply and demand values.
-     * @param lineWiseInput
-     * @return
-     */
-    private static OptionalInt GetSumOfSupplyDemandValues(List<String[]> lineWiseInput) {
-        return lineWiseInput.stream()
-                            .filter(e -> e.length > 0)
-                            .mapToInt(e -> Integer.parseInt(e[0]))
-                            .reduce((supplyOrDemand, accumulator) -> accumulator + supplyOrDemand);        
-    }
-
-    /**
-     * Updates the circulation graph input.
-     * adds the new source and sink nodes from supply and demand nodes respectively.
-     * for more info, check the circulation problem description. 
-     * @param lineWiseInput
-     * @param totalSupply
+     * Traces the path found by the BFS over the graph access, from the predecessor arcs indexed by longs.
+     * @param graph
+     * @param pathTracker
+     * @param sourceNode
+     * @param lastVisitedNode
      * @return
      */
-    private static List<String[]> UpdateCirculationGraphInput(List<String[]> lineWiseInput) {        
-        ArrayList<CirculationDetail> circulationDetails = new ArrayList<>();
-        Map<Integer, List<String>> tempGraphInput = new LinkedHashMap<Integer, List<String>>();
-
-        int linesCount = lineWiseInput.size(), source = 0, sink = linesCount + 1; // +1, since source will be added as line-0
-
-        /**
-         * for each input line splices the first token which is supply/demand
-         * and stores the removed value and its details as new object in another list, 
-         * in order to add it back to source/sink node to solve the circulation problem.
-         */
-        for (int lineNumber = 0; lineNumber < linesCount; lineNumber++) {
-            String[] tokens = lineWiseInput.get(lineNumber);
-
-            int firstToken = tokens.length > 0 ? Integer.parseInt(tokens[0]) : 0; // supply or demand value.
-            if (firstToken > 0) {
-                circulationDetails.add(new CirculationDetail(lineNumber + 1, sink, firstToken));
-            } else if (firstToken < 0) {
-                circulationDetails.add(new CirculationDetail(source, lineNumber + 1, -firstToken));
-            }
-            
-            String[] firstTokenTrimmedList = tokens.length == 0 ? new String[0] : Arrays.copyOfRange(tokens, 1, tokens.length); // removing supply/demand value, ie. first element in line.
-            
-            /** 
-             * since nodes are being started from zero in input-graph, we have to increment the node values 
-             * as we are following zero-based node as id and adding new source node as first line.
-             */ 
-            firstTokenTrimmedList = IncrementNodeNumberInInput(firstTokenTrimmedList); 
-            List<String> trimmedTokenList = Arrays.stream(firstTokenTrimmedList)                                                
-                                                  .collect(Collectors.toList());
-            tempGraphInput.put(lineNumber+1, trimmedTokenList);
-        }
+    static Integer[] TraceBFSTraversalPath(GraphAccess graph, long[] pathTracker, int sourceNode, int lastVisitedNode) {
+        Stack<Integer> pathTracer = new Stack<Integer>();
+        do {
+            pathTracer.push(lastVisitedNode);
+            lastVisitedNode = graph.getArcSource(pathTracker[lastVisitedNode]);
+        } while (lastVisitedNode != sourceNode);
+        pathTracer.push(sourceNode);
 
-        /**
-         * adding the temp-stored circulation-details list, supply/demand node to new source/sink node data updates.
-         * updating the new-source data into a new string[] which we are adding to final updated list at the end.
-         * and updating the new-sink node data from every existing demand node by updating existing node datas disctionary/map. 
-         */
-        List<String> newSourceNodeData = new ArrayList<String>();
-        for (CirculationDetail circulation : circulationDetails) {
-            if (circulation.fromNode == source) { // supply details, hence, to be added in source/first input line.
-                newSourceNodeData.add(String.valueOf(circulation.toNode)); // adding adjacent-node
-                newSourceNodeData.add(String.valueOf(circulation.value)); // adding edge-weight
-            } else { // demand details
-                int newLineNumber = circulation.fromNode;
-                List<String> existingStrings = tempGraphInput.get(newLineNumber);
-                existingStrings.add(String.valueOf(circulation.toNode)); // toNode/sink, adding adjacent-node
-                existingStrings.add(String.valueOf(circulation.value)); // adding edge-weight
-                tempGraphInput.put(newLineNumber, existingStrings);
-            }
+        Integer[] visitedNodesInOrder = new Integer[pathTracer.size()];
+        int currentIndex = 0;
+        while (!pathTracer.isEmpty()) {
+            visitedNodesInOrder[currentIndex++] = pathTracer.pop();
         }
 
-        List<String[]> updatedGraphInput = new ArrayList<>();
-
-        // adding the new source node data to input-graph-data.
-        updatedGraphInput.add(newSourceNodeData.stream().toArray(String[]::new));
-        for (int i = 1; i <= linesCount; i++) {
-            updatedGraphInput.add(tempGraphInput.get(i).stream().toArray(String[]::new));
-        }
-        return updatedGraphInput;
+        return visitedNodesInOrder;
     }
 
     /**
-     * Increments the node/vertex id by one since we are adding 
-     * new source node of zero, which will collide with given input format.
-     * @param graphLineInput
+     * Reads the circulation problem, each line giving the demand of the node (negative for a supply)
+     * followed by its edges as adjacent_node capacity, or adjacent_node lower_bound..capacity.
+     * @param lineWiseInput
      * @return
      */
-    private static String[] IncrementNodeNumberInInput(String[] graphLineInput) {
-        String[] updatedInput = new String[graphLineInput.length];
-        for (int i = 0; i < graphLineInput.length; i++ ) {
-            String newValue = graphLineInput[i];
-            if (i % 2 == 0) { // as we removed supply/demand value, every even position number is a node.
-                int nodeValue = Integer.parseInt(newValue);
-                newValue = String.valueOf(++nodeValue);
+    private static CirculationProblem ReadCirculationProblem(List<String[]> lineWiseInput) {
+        CirculationProblem problem = new CirculationProblem(lineWiseInput.size(), lineWiseInput.size());
+        for (int node = 0; node < lineWiseInput.size(); node++) {
+            String[] tokens = lineWiseInput.get(node);
+            problem.setDemand(node, tokens.length > 0 ? Integer.parseInt(tokens[0]) : 0);
+            if (tokens.length % 2 == 0 && tokens.length > 0) {
+                throw new IllegalArgumentException("Invalid input, capacity missing for an edge in line " + (node + 1));
+            }
+            for (int index = 1; index < tokens.length; index += 2) {
+                int adjacentNode = Integer.parseInt(tokens[index]);
+                String bounds = tokens[index + 1];
+                int separator = bounds.indexOf("..");
+                int lowerBound = separator < 0 ? 0 : Integer.parseInt(bounds.substring(0, separator));
+                int capacity = Integer.parseInt(separator < 0 ? bounds : bounds.substring(separator + 2));
+                problem.addEdge(node, adjacentNode, lowerBound, capacity);
             }
-            updatedInput[i] = newValue;
         }
+        return problem;
+    }
 
-        return updatedInput;
+    private static String FormatNodeSet(boolean[] nodeSet) {
+        return IntStream.range(0, nodeSet.length)
+                        .filter(node -> nodeSet[node])
+                        .mapToObj(String::valueOf)
+                        .collect(Collectors.joining(", ", "{", "}"));
     }
 
     /**
-     * Circulation detail class for details of supply/demand with from/to nodes.
+     * Formats the cut edges of the violating set: the edges entering it at their capacity,
+     * and the edges leaving it at their lower bound.
+     * @param problem
+     * @param circulation
+     * @return
      */
-    private static class CirculationDetail {
-        public int fromNode;
-        public int toNode;
-        public int value;
-
-        public CirculationDetail(int from, int to, int value) {
-            this.fromNode = from;
-            this.toNode = to;
-            this.value = value;
+    private static String FormatCirculationCut(CirculationProblem problem, CirculationResult circulation) {
+        List<String> cutEdges = new ArrayList<>(circulation.cutEdges.length);
+        for (int edge: circulation.cutEdges) {
+            boolean entering = circulation.violatingSet[problem.getToNode(edge)];
+            cutEdges.add(problem.getFromNode(edge) + " -> " + problem.getToNode(edge) 
+                + (entering ? " (capacity " + problem.getCapacity(edge) + ")" : " (lower bound " + problem.getLowerBound(edge) + ")"));
         }
+        return String.join(", ", cutEdges);
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package networkflow.core;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the adjacency-list input format straight from a memory-mapped file into the flow graph!
+ * Each line i holds the "adjacent_node capacity" pairs of node i, separated by spaces,
+ * the capacity being optionally followed by the cost of the edge, as in "capacity:cost".
+ * The numbers are parsed from the bytes with a small state machine, so no String is created,
+ * and the file is mapped in windows of at most 1 GB, the parsing state carrying over between them.
+ */
+public final class MappedGraphReader {
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FlowGraph graph;
+
+    private int currentNode;
+    private int edgesInLine;
+    private boolean lineHasContent;
+
+    private boolean inToken;
+    private boolean negative;
+    private boolean hasDigits;
+    private long value;
+    private boolean hasAdjacentNode;
+    private int adjacentNode;
+    private boolean readingCost;
+    private long capacity;
+
+    private MappedGraphReader(FlowGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Reads the input file into the graph, returning the number of lines read.
+     * @param inputFile
+     * @param graph
+     * @return
+     * @throws IOException
+     */
+    static int Read(Path inputFile, FlowGraph graph) throws IOException {
+        MappedGraphReader reader = new MappedGraphReader(graph);
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            for (long position = 0; position < fileSize; position += WINDOW_SIZE) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, fileSize - position));
+                reader.parse(buffer);
+            }
+        }
+        if (reader.lineHasContent) { // last line without the line break.
+            reader.endToken();
+            reader.endLine();
+        }
+        return reader.currentNode;
+    }
+
+    private void parse(MappedByteBuffer buffer) {
+        for (int index = 0, limit = buffer.limit(); index < limit; index++) {
+            byte character = buffer.get(index);
+            if (character >= '0' && character <= '9') {
+                if (this.value > (Long.MAX_VALUE - (character - '0')) / 10) {
+                    throw new NumberFormatException("Invalid input, number out of range in line " + this.currentNode);
+                }
+                this.value = this.value * 10 + (character - '0');
+                this.hasDigits = true;
+                this.inToken = true;
+                this.lineHasContent = true;
+            } else if (character == '-' && !this.inToken) {
+                this.negative = true;
+                this.inToken = true;
+                this.lineHasContent = true;
+            } else if (character == ':' && this.inToken && this.hasAdjacentNode && !this.readingCost) {
+                this.capacity = this.getTokenNumber();
+                this.readingCost = true;
+                this.inToken = false;
+                this.negative = false;
+                this.hasDigits = false;
+                this.value = 0;
+            } else if (character == '\n') {
+                this.endToken();
+                this.endLine();
+            } else if (character == ' ' || character == '\t' || character == '\r') {
+                this.endToken();
+            } else {
+                throw new NumberFormatException("Invalid input, unexpected character '" + (char) character + "' in line " + this.currentNode);
+            }
+        }
+    }
+
+    private void endToken() {
+        if (!this.inToken) {
+            if (this.readingCost) {
+                throw new NumberFormatException("Invalid input, cost missing after the capacity in line " + this.currentNode);
+            }
+            return;
+        }
+        long number = this.getTokenNumber();
+        if (this.readingCost) {
+            this.graph.addEdge(this.currentNode, this.adjacentNode, this.capacity, number);
+            this.edgesInLine++;
+            this.readingCost = false;
+        } else if (this.hasAdjacentNode) { // capacities are 64-bit, the graph picks the residual graph fitting them.
+            this.graph.addEdge(this.currentNode, this.adjacentNode, number);
+            this.edgesInLine++;
+        } else {
+            if (number > Integer.MAX_VALUE || number < Integer.MIN_VALUE) {
+                throw new NumberFormatException("Invalid input, node id out of range in line " + this.currentNode);
+            }
+            this.adjacentNode = (int) number;
+        }
+        this.hasAdjacentNode = !this.hasAdjacentNode;
+        this.inToken = false;
+        this.negative = false;
+        this.hasDigits = false;
+        this.value = 0;
+    }
+
+    /**
+     * Gets the number of the token read so far, a sign without digits being rejected.
+     * @return
+     */
+    private long getTokenNumber() {
+        if (!this.hasDigits) {
+            throw new NumberFormatException("Invalid input, sign without a number in line " + this.currentNode);
+        }
+        return this.negative ? -this.value : this.value;
+    }
+
+    private void endLine() {
+        if (this.hasAdjacentNode) {
+            throw new IllegalArgumentException("Invalid input, adjacent node without capacity in line " + this.currentNode);
+        }
+        this.graph.createNode(this.currentNode);
+        this.graph.endLine(this.currentNode, this.edgesInLine);
+        this.currentNode++;
+        this.edgesInLine = 0;
+        this.lineHasContent = false;
+    }
+}
@@ -0,0 +1,14 @@
+package networkflow.algorithms.matching;
+
+/**
+ * Result of a bipartite matching: its size, and the mate of every flow graph node, -1 when unmatched.
+ */
+public class MatchingResult {
+    public final int size;
+    public final int[] mates;
+
+    public MatchingResult(int size, int[] mates) {
+        this.size = size;
+        this.mates = mates;
+    }
+}
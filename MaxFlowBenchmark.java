@@ -0,0 +1,44 @@
+package networkflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import networkflow.algorithms.maxflow.MaxFlowEngine;
+import networkflow.algorithms.maxflow.MaxFlowSolver;
+import networkflow.core.ResidualGraph;
+
+/**
+ * Benchmarks solving the max-flow from scratch with each of the engines, only the residual capacities being allocated per solve.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MaxFlowBenchmark {
+
+    @State(Scope.Thread)
+    public static class SolverState {
+        @Param({ "edmonds-karp", "capacity-scaling", "dinic", "push-relabel", "parallel-push-relabel" })
+        public String engine;
+
+        public MaxFlowSolver solver;
+
+        @Setup(Level.Trial)
+        public void createSolver() {
+            this.solver = MaxFlowEngine.FromName(this.engine).createSolver();
+        }
+    }
+
+    @Benchmark
+    public int solve(GraphBenchmarkState state, SolverState solverState) {
+        ResidualGraph residualGraph = state.graph.getResidualGraph();
+        return solverState.solver.solve(residualGraph, state.graph.getSource(), state.graph.getSink(), residualGraph.copyCapacities());
+    }
+}
@@ -0,0 +1,66 @@
+package networkflow.algorithms.maxflow;
+
+import java.util.function.Supplier;
+
+import networkflow.algorithms.BidirectionalBreadthFirstSearch;
+import networkflow.algorithms.DirectionOptimizingBreadthFirstSearch;
+
+/**
+ * The max-flow engines which can be picked by name, eg. from the command line.
+ */
+public enum MaxFlowEngine {
+    EDMONDS_KARP("edmonds-karp", FordFulkerson::new, LongFordFulkerson::new),
+    EDMONDS_KARP_BIDIRECTIONAL("edmonds-karp-bidirectional", () -> new FordFulkerson(BidirectionalBreadthFirstSearch::new), null),
+    EDMONDS_KARP_DIRECTION_OPTIMIZING("edmonds-karp-direction-optimizing", () -> new FordFulkerson(DirectionOptimizingBreadthFirstSearch::new), null),
+    CAPACITY_SCALING("capacity-scaling", CapacityScaling::new, null),
+    DINIC("dinic", Dinic::new, LongDinic::new),
+    PUSH_RELABEL("push-relabel", PushRelabel::new, null),
+    PARALLEL_PUSH_RELABEL("parallel-push-relabel", ParallelPushRelabel::new, null);
+
+    public final String engineName;
+    private final Supplier<MaxFlowSolver> solverFactory;
+    private final Supplier<LongMaxFlowSolver> longSolverFactory; // null when there is no 64-bit variant.
+
+    private MaxFlowEngine(String engineName, Supplier<MaxFlowSolver> solverFactory, Supplier<LongMaxFlowSolver> longSolverFactory) {
+        this.engineName = engineName;
+        this.solverFactory = solverFactory;
+        this.longSolverFactory = longSolverFactory;
+    }
+
+    /**
+     * Creates a new solver instance of this engine.
+     * @return
+     */
+    public MaxFlowSolver createSolver() {
+        return this.solverFactory.get();
+    }
+
+    public boolean supportsLongCapacities() {
+        return this.longSolverFactory != null;
+    }
+
+    /**
+     * Creates a new solver instance of the 64-bit variant of this engine.
+     * @return
+     */
+    public LongMaxFlowSolver createLongSolver() {
+        if (this.longSolverFactory == null) {
+            throw new IllegalArgumentException("Invalid input, the engine " + this.engineName + " does not support capacities beyond the int range.");
+        }
+        return this.longSolverFactory.get();
+    }
+
+    /**
+     * Finds the engine by its name.
+     * @param engineName
+     * @return
+     */
+    public static MaxFlowEngine FromName(String engineName) {
+        for (MaxFlowEngine engine: MaxFlowEngine.values()) {
+            if (engine.engineName.equalsIgnoreCase(engineName)) {
+                return engine;
+            }
+        }
+        throw new IllegalArgumentException("Unknown max-flow engine: " + engineName);
+    }
+}
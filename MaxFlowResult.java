@@ -0,0 +1,192 @@
+package networkflow.algorithms.maxflow;
+
+import java.util.Arrays;
+
+import networkflow.core.ResidualGraph;
+
+/**
+ * Result of a max-flow solve: the flow on each edge, the source side of the minimum cut and the cut edges.
+ * The source side is the set of nodes reachable from the source in the final residual graph, found by one BFS,
+ * and the cut edges are the edges of positive capacity leaving it, which are all saturated and whose capacities sum up to
+ * the max flow, the zero-capacity edges crossing the cut being left out.
+ * Edges are identified by their index in input order, as in ResidualGraph.edgeArcs.
+ */
+public class MaxFlowResult {
+    public final int maxFlow;
+    public final int[] edgeFlows;
+    public final boolean[] sourceSide;
+    public final int[] cutEdges;
+
+    private MaxFlowResult(int maxFlow, int[] edgeFlows, boolean[] sourceSide, int[] cutEdges) {
+        this.maxFlow = maxFlow;
+        this.edgeFlows = edgeFlows;
+        this.sourceSide = sourceSide;
+        this.cutEdges = cutEdges;
+    }
+
+    /**
+     * Solves the max flow with the solver on a fresh copy of the capacities, and extracts the result.
+     * @param solver
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @return
+     */
+    public static MaxFlowResult Solve(MaxFlowSolver solver, ResidualGraph residualGraph, int source, int sink) {
+        int[] residualCapacities = residualGraph.copyCapacities();
+        int maxFlow = solver.solve(residualGraph, source, sink, residualCapacities);
+        return MaxFlowResult.FromResidual(residualGraph, source, sink, maxFlow, residualCapacities);
+    }
+
+    /**
+     * Extracts the result from the residual capacities left by a solver.
+     * Engines stopping at a maximum preflow (eg. push-relabel) leave excess on some nodes, which is
+     * first returned to the source, so that the edge flows are a valid flow.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @param maxFlow
+     * @param residualCapacities
+     * @return
+     */
+    public static MaxFlowResult FromResidual(ResidualGraph residualGraph, int source, int sink, int maxFlow, int[] residualCapacities) {
+        if (source != sink) {
+            MaxFlowResult.ReturnExcessToSource(residualGraph, source, sink, residualCapacities);
+        }
+
+        int[] edgeArcs = residualGraph.edgeArcs;
+        int[] edgeFlows = new int[edgeArcs.length];
+        for (int edge = 0; edge < edgeArcs.length; edge++) {
+            int arc = edgeArcs[edge];
+            edgeFlows[edge] = residualGraph.capacities[arc] - residualCapacities[arc];
+        }
+
+        boolean[] sourceSide = MaxFlowResult.FindSourceSide(residualGraph, source, residualCapacities);
+
+        int cutEdgesCount = 0;
+        int[] cutEdges = new int[edgeArcs.length];
+        for (int edge = 0; edge < edgeArcs.length; edge++) {
+            int arc = edgeArcs[edge];
+            if (residualGraph.capacities[arc] > 0 && sourceSide[residualGraph.getArcSource(arc)] && !sourceSide[residualGraph.targets[arc]]) {
+                cutEdges[cutEdgesCount++] = edge;
+            }
+        }
+
+        return new MaxFlowResult(maxFlow, edgeFlows, sourceSide, Arrays.copyOf(cutEdges, cutEdgesCount));
+    }
+
+    /**
+     * Gets the total capacity of the cut edges, which equals the max flow.
+     * @param residualGraph
+     * @return
+     */
+    public long getCutCapacity(ResidualGraph residualGraph) {
+        long cutCapacity = 0;
+        for (int edge: this.cutEdges) {
+            cutCapacity += residualGraph.capacities[residualGraph.edgeArcs[edge]];
+        }
+        return cutCapacity;
+    }
+
+    /**
+     * BFS from the source over the arcs with residual capacity.
+     * @param residualGraph
+     * @param source
+     * @param residualCapacities
+     * @return
+     */
+    private static boolean[] FindSourceSide(ResidualGraph residualGraph, int source, int[] residualCapacities) {
+        int[] offsets = residualGraph.offsets, targets = residualGraph.targets;
+        boolean[] sourceSide = new boolean[residualGraph.verticesCount];
+        int[] queue = new int[residualGraph.verticesCount];
+        int head = 0, tail = 0;
+        queue[tail++] = source;
+        sourceSide[source] = true;
+
+        while (head < tail) {
+            int currentNode = queue[head++];
+            for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                int adjacentNode = targets[arc];
+                if (!sourceSide[adjacentNode] && residualCapacities[arc] > 0) {
+                    sourceSide[adjacentNode] = true;
+                    queue[tail++] = adjacentNode;
+                }
+            }
+        }
+        return sourceSide;
+    }
+
+    /**
+     * Turns a preflow into a flow of the same value, by pushing the excess of every node back towards the source
+     * along arcs which carry flow into it (residual above capacity), since in a preflow every node with excess
+     * is connected back to the source by such arcs. Does nothing for a flow, where no node has excess.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     */
+    private static void ReturnExcessToSource(ResidualGraph residualGraph, int source, int sink, int[] residualCapacities) {
+        int verticesCount = residualGraph.verticesCount;
+        int[] offsets = residualGraph.offsets, targets = residualGraph.targets;
+        int[] capacities = residualGraph.capacities, reverseArcs = residualGraph.reverseArcs;
+
+        // the inflow on an arc pair shows up at its head as residual above capacity on the backward arc.
+        long[] excess = new long[verticesCount];
+        boolean hasExcess = false;
+        for (int u = 0; u < verticesCount; u++) {
+            for (int arc = offsets[u]; arc < offsets[u + 1]; arc++) {
+                excess[u] += residualCapacities[arc] - capacities[arc];
+            }
+            hasExcess |= u != source && u != sink && excess[u] > 0;
+        }
+        if (!hasExcess) {
+            return;
+        }
+
+        int[] predecessorArcs = new int[verticesCount];
+        int[] visitedEpochs = new int[verticesCount];
+        int[] queue = new int[verticesCount];
+        int epoch = 0;
+        for (int v = 0; v < verticesCount; v++) {
+            while (v != source && v != sink && excess[v] > 0) {
+                // BFS from v towards the source over the arcs carrying flow into the current node.
+                epoch++;
+                int head = 0, tail = 0;
+                queue[tail++] = v;
+                visitedEpochs[v] = epoch;
+                boolean sourceReached = false;
+                while (head < tail && !sourceReached) {
+                    int currentNode = queue[head++];
+                    for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                        int adjacentNode = targets[arc];
+                        if (visitedEpochs[adjacentNode] != epoch && residualCapacities[arc] > capacities[arc]) {
+                            visitedEpochs[adjacentNode] = epoch;
+                            predecessorArcs[adjacentNode] = arc;
+                            if (adjacentNode == source) {
+                                sourceReached = true;
+                                break;
+                            }
+                            queue[tail++] = adjacentNode;
+                        }
+                    }
+                }
+                if (!sourceReached) {
+                    throw new IllegalStateException("Invalid operation, the excess of node " + v + " cannot be returned to the source.");
+                }
+
+                // the residual capacities are ints, so is the amount returned along the path.
+                int amount = (int) Math.min(excess[v], Integer.MAX_VALUE);
+                for (int u = source; u != v; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                    int arc = predecessorArcs[u];
+                    amount = Math.min(amount, residualCapacities[arc] - capacities[arc]);
+                }
+                for (int u = source; u != v; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                    int arc = predecessorArcs[u];
+                    residualCapacities[arc] -= amount;
+                    residualCapacities[reverseArcs[arc]] += amount;
+                }
+                excess[v] -= amount;
+            }
+        }
+    }
+}
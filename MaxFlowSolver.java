@@ -0,0 +1,39 @@
+package networkflow.algorithms.maxflow;
+
+import networkflow.core.ResidualGraph;
+import networkflow.utils.FlowMetrics;
+
+/**
+ * Common interface of the max-flow engines working on the CSR residual graph.
+ */
+public interface MaxFlowSolver {
+    /**
+     * Pushes the maximum flow from source to sink.
+     * the residual capacities are updated in place, and the flow pushed by this call is returned.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @return
+     */
+    int solve(ResidualGraph residualGraph, int source, int sink, int[] residualCapacities);
+
+    /**
+     * Solves on a fresh copy of the graph capacities.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @return
+     */
+    default int solve(ResidualGraph residualGraph, int source, int sink) {
+        return this.solve(residualGraph, source, sink, residualGraph.copyCapacities());
+    }
+
+    /**
+     * Sets the metrics filled in by the next solves, or null to disable them.
+     * Engines which do not count their work ignore it.
+     * @param metrics
+     */
+    default void setMetrics(FlowMetrics metrics) {
+    }
+}
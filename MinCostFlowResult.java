@@ -0,0 +1,16 @@
+package networkflow.algorithms.mincostflow;
+
+/**
+ * Result of a min-cost flow solve: the flow value, its total cost and the flow on each edge in input order.
+ */
+public class MinCostFlowResult {
+    public final int flow;
+    public final long cost;
+    public final int[] edgeFlows;
+
+    public MinCostFlowResult(int flow, long cost, int[] edgeFlows) {
+        this.flow = flow;
+        this.cost = cost;
+        this.edgeFlows = edgeFlows;
+    }
+}
@@ -0,0 +1,267 @@
+package networkflow.algorithms.maxflow;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import networkflow.core.ResidualGraph;
+
+/**
+ * The class for implementing the synchronous parallel push-relabel max-flow algorithm.
+ * The active nodes are processed in rounds, each one split into two parallel stages on a ForkJoinPool:
+ * 1. push, every active node pushes its excess along the arcs admissible under the labels of the round.
+ *    since an arc and its reverse can never both be admissible, each arc pair is written by one node only,
+ *    so the residual capacities need no locking, and only the excess is updated atomically.
+ * 2. relabel, every node still holding excess is raised to one above its lowest residual neighbour.
+ *    labels only grow, so reading the neighbour labels while they are being raised keeps them valid.
+ * A sequential global relabel (reverse BFS from the sink) runs between rounds once enough relabel work
+ * has piled up, which also takes the role of the gap heuristic.
+ * Like PushRelabel, it stops with a maximum preflow, the excess of the sink being the maximum flow.
+ * Reference:
+ * 1. Baumstark, Blelloch, Shun: Efficient implementation of a synchronous parallel push-relabel algorithm.
+ */
+public class ParallelPushRelabel implements MaxFlowSolver {
+    private static final int GLOBAL_RELABEL_ALPHA = 6, RELABEL_WORK = 12, SEQUENTIAL_THRESHOLD = 256;
+
+    private final ForkJoinPool pool;
+
+    private ResidualGraph residualGraph;
+    private int[] residualCapacities;
+    private int verticesCount, source, sink;
+
+    private AtomicIntegerArray labels;
+    private AtomicIntegerArray excess;
+    private AtomicIntegerArray activeRounds; // the round for which a node was last queued, to queue it once.
+    private AtomicLong relabelWork;
+
+    private int[] activeNodes;
+    private int[] nextActiveNodes;
+    private int[] distances; // of the global relabel.
+    private AtomicInteger nextActiveCount;
+    private int round;
+
+    public ParallelPushRelabel() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelPushRelabel(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public int solve(ResidualGraph residualGraph, int source, int sink, int[] residualCapacities) {
+        if (residualGraph.verticesCount <= 0 || source == sink) return 0;
+
+        this.initialize(residualGraph, source, sink, residualCapacities);
+        long globalRelabelThreshold = (long) GLOBAL_RELABEL_ALPHA * this.verticesCount + residualGraph.getArcsCount() / 2;
+
+        // saturating all the arcs out of the source.
+        for (int arc = residualGraph.offsets[source]; arc < residualGraph.offsets[source + 1]; arc++) {
+            int delta = residualCapacities[arc];
+            if (delta > 0) {
+                residualCapacities[arc] = 0;
+                residualCapacities[residualGraph.reverseArcs[arc]] += delta;
+                this.excess.addAndGet(residualGraph.targets[arc], delta);
+            }
+        }
+        int activeCount = this.globalRelabel();
+
+        while (activeCount > 0) {
+            this.round++;
+            this.nextActiveCount.set(0);
+            this.runParallel(activeCount, this::push);
+            this.runParallel(activeCount, this::relabel);
+
+            int[] swap = this.activeNodes;
+            this.activeNodes = this.nextActiveNodes;
+            this.nextActiveNodes = swap;
+            activeCount = this.nextActiveCount.get();
+
+            if (this.relabelWork.get() > globalRelabelThreshold) {
+                activeCount = this.globalRelabel();
+            }
+        }
+
+        return this.excess.get(sink);
+    }
+
+    private void initialize(ResidualGraph residualGraph, int source, int sink, int[] residualCapacities) {
+        int verticesCount = residualGraph.verticesCount;
+        this.residualGraph = residualGraph;
+        this.residualCapacities = residualCapacities;
+        this.verticesCount = verticesCount;
+        this.source = source;
+        this.sink = sink;
+
+        // the scratch arrays are kept across the solves on graphs of the same size, the global relabel resetting the labels.
+        if (this.labels == null || this.labels.length() != verticesCount) {
+            this.labels = new AtomicIntegerArray(verticesCount);
+            this.excess = new AtomicIntegerArray(verticesCount);
+            this.activeRounds = new AtomicIntegerArray(verticesCount);
+            this.relabelWork = new AtomicLong();
+            this.activeNodes = new int[verticesCount];
+            this.nextActiveNodes = new int[verticesCount];
+            this.distances = new int[verticesCount];
+            this.nextActiveCount = new AtomicInteger();
+        } else {
+            for (int node = 0; node < verticesCount; node++) {
+                this.excess.set(node, 0);
+                this.activeRounds.set(node, 0);
+            }
+        }
+        this.round = 0;
+    }
+
+    /**
+     * Stage one, pushes the excess of the active node along the admissible arcs of the round.
+     * @param index
+     */
+    private void push(int index) {
+        int node = this.activeNodes[index];
+        int[] offsets = this.residualGraph.offsets, targets = this.residualGraph.targets, reverseArcs = this.residualGraph.reverseArcs;
+        int[] residualCapacities = this.residualCapacities;
+        int label = this.labels.get(node);
+        if (label >= this.verticesCount) {
+            return;
+        }
+
+        for (int arc = offsets[node]; arc < offsets[node + 1]; arc++) {
+            int adjacentNode = targets[arc];
+            if (this.labels.get(adjacentNode) != label - 1 || residualCapacities[arc] <= 0) {
+                continue;
+            }
+            // only this node decreases its own excess, so the amount read here is available.
+            int nodeExcess = this.excess.get(node);
+            if (nodeExcess <= 0) {
+                break;
+            }
+            int delta = Math.min(nodeExcess, residualCapacities[arc]);
+            residualCapacities[arc] -= delta;
+            residualCapacities[reverseArcs[arc]] += delta;
+            this.excess.addAndGet(node, -delta);
+            this.excess.addAndGet(adjacentNode, delta);
+            this.queueForNextRound(adjacentNode);
+        }
+    }
+
+    /**
+     * Stage two, raises the node still holding excess to one above its lowest residual neighbour.
+     * @param index
+     */
+    private void relabel(int index) {
+        int node = this.activeNodes[index];
+        if (this.excess.get(node) <= 0 || this.labels.get(node) >= this.verticesCount) {
+            return;
+        }
+
+        int[] offsets = this.residualGraph.offsets, targets = this.residualGraph.targets;
+        int newLabel = this.verticesCount;
+        for (int arc = offsets[node]; arc < offsets[node + 1]; arc++) {
+            if (this.residualCapacities[arc] > 0) {
+                newLabel = Math.min(newLabel, this.labels.get(targets[arc]) + 1);
+            }
+        }
+        this.labels.set(node, Math.max(newLabel, this.labels.get(node)));
+        this.relabelWork.addAndGet(RELABEL_WORK + offsets[node + 1] - offsets[node]);
+        this.queueForNextRound(node);
+    }
+
+    /**
+     * Queues the node for the next round once, if it can still be active.
+     * @param node
+     */
+    private void queueForNextRound(int node) {
+        if (node == this.source || node == this.sink || this.labels.get(node) >= this.verticesCount) {
+            return;
+        }
+        if (this.activeRounds.getAndSet(node, this.round) != this.round) {
+            this.nextActiveNodes[this.nextActiveCount.getAndIncrement()] = node;
+        }
+    }
+
+    /**
+     * Sets the labels to the exact residual distances to the sink with a reverse BFS, lifting the
+     * nodes which cannot reach the sink to V, and queues every node holding excess below V.
+     * returns the number of the active nodes.
+     * @return
+     */
+    private int globalRelabel() {
+        int[] offsets = this.residualGraph.offsets, targets = this.residualGraph.targets, reverseArcs = this.residualGraph.reverseArcs;
+        int verticesCount = this.verticesCount;
+        int[] distances = this.distances;
+        int[] queue = this.nextActiveNodes;
+        Arrays.fill(distances, verticesCount);
+
+        int head = 0, tail = 0;
+        queue[tail++] = this.sink;
+        distances[this.sink] = 0;
+        while (head < tail) {
+            int currentNode = queue[head++];
+            for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                int adjacentNode = targets[arc];
+                if (distances[adjacentNode] == verticesCount && adjacentNode != this.source
+                        && this.residualCapacities[reverseArcs[arc]] > 0) {
+                    distances[adjacentNode] = distances[currentNode] + 1;
+                    queue[tail++] = adjacentNode;
+                }
+            }
+        }
+
+        int activeCount = 0;
+        for (int node = 0; node < verticesCount; node++) {
+            this.labels.set(node, distances[node]);
+            if (node != this.sink && distances[node] < verticesCount && this.excess.get(node) > 0) {
+                this.activeNodes[activeCount++] = node;
+            }
+        }
+        this.relabelWork.set(0);
+        return activeCount;
+    }
+
+    /**
+     * Runs the stage over the active nodes of the round, in parallel when there are enough of them.
+     * @param count
+     * @param stage
+     */
+    private void runParallel(int count, IntConsumer stage) {
+        if (count < SEQUENTIAL_THRESHOLD || this.pool.getParallelism() <= 1) {
+            for (int index = 0; index < count; index++) {
+                stage.accept(index);
+            }
+        } else {
+            this.pool.invoke(new StageTask(stage, 0, count));
+        }
+    }
+
+    /**
+     * Fork-join task splitting a stage over ranges of the active nodes.
+     */
+    private static class StageTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient IntConsumer stage; // the solver stage, the task is never serialized.
+        private final int from, to;
+
+        public StageTask(IntConsumer stage, int from, int to) {
+            this.stage = stage;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= SEQUENTIAL_THRESHOLD) {
+                for (int index = this.from; index < this.to; index++) {
+                    this.stage.accept(index);
+                }
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new StageTask(this.stage, this.from, middle), new StageTask(this.stage, middle, this.to));
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package networkflow.algorithms;
+
+import networkflow.utils.FlowMetrics;
+
+/**
+ * Search for an s-t path over the arcs of a CSR residual graph which have positive residual capacity.
+ * Implementations keep their own scratch memory, so an instance is meant to be used by one solver at a time.
+ */
+public interface PathSearch {
+    /**
+     * returns true if the sink is reachable from the source, in which case
+     * getPredecessorArcs()[v] holds the arc entering v, for every node v on the found path.
+     * @param source
+     * @param sink
+     * @param residualCapacities
+     * @return
+     */
+    boolean search(int source, int sink, int[] residualCapacities);
+
+    int[] getPredecessorArcs();
+
+    /**
+     * Sets the metrics filled in by the searches, or null to disable them.
+     * Searches which do not count their work ignore it.
+     * @param metrics
+     */
+    default void setMetrics(FlowMetrics metrics) {
+    }
+}
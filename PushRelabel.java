@@ -0,0 +1,259 @@
+package networkflow.algorithms.maxflow;
+
+import java.util.Arrays;
+
+import networkflow.core.ResidualGraph;
+
+/**
+ * The class for implementing the highest-label push-relabel max-flow algorithm.
+ * Active nodes are discharged in the order of their labels (highest first), with two heuristics:
+ * 1. global relabeling, a reverse BFS from the sink which resets the labels to the exact distances,
+ *    run once the relabel work since the last one grows beyond O(V + E).
+ * 2. gap heuristic, when no node is left with some label d, nodes above d cannot reach the sink anymore.
+ * The solver stops with a maximum preflow, ie. the excess of the sink is the maximum flow, while
+ * nodes which cannot reach the sink may still hold excess in the residual capacities.
+ * Runs in O(V^2 * sqrt(E)).
+ * Reference:
+ * 1. https://en.wikipedia.org/wiki/Push%E2%80%93relabel_maximum_flow_algorithm
+ * 2. Cherkassky, Goldberg: On implementing push-relabel method for the maximum flow problem.
+ */
+public class PushRelabel implements MaxFlowSolver {
+    private static final int GLOBAL_RELABEL_ALPHA = 6, RELABEL_WORK = 12;
+
+    private ResidualGraph residualGraph;
+    private int[] residualCapacities;
+    private int verticesCount, source, sink;
+
+    private int[] labels;
+    private int[] excess;
+    private int[] currentArcs;
+    private int[] queue;
+
+    // active nodes per label, singly linked.
+    private int[] activeHeads;
+    private int[] activeNext;
+    // all the nodes below label V per label, doubly linked for the gap heuristic.
+    private int[] bucketHeads;
+    private int[] bucketNext;
+    private int[] bucketPrevious;
+
+    private int maxActiveLabel, maxLabel;
+    private long relabelWork, globalRelabelThreshold;
+
+    @Override
+    public int solve(ResidualGraph residualGraph, int source, int sink, int[] residualCapacities) {
+        if (residualGraph.verticesCount <= 0 || source == sink) return 0;
+
+        this.initialize(residualGraph, source, sink, residualCapacities);
+
+        // saturating all the arcs out of the source.
+        for (int arc = residualGraph.offsets[source]; arc < residualGraph.offsets[source + 1]; arc++) {
+            int delta = residualCapacities[arc];
+            if (delta > 0) {
+                residualCapacities[arc] = 0;
+                residualCapacities[residualGraph.reverseArcs[arc]] += delta;
+                this.excess[residualGraph.targets[arc]] += delta;
+            }
+        }
+        this.globalRelabel();
+
+        while (this.maxActiveLabel >= 0) {
+            int node = this.activeHeads[this.maxActiveLabel];
+            if (node < 0) {
+                this.maxActiveLabel--;
+                continue;
+            }
+            this.activeHeads[this.maxActiveLabel] = this.activeNext[node];
+            this.discharge(node);
+
+            if (this.relabelWork > this.globalRelabelThreshold) {
+                this.globalRelabel();
+            }
+        }
+
+        return this.excess[sink];
+    }
+
+    private void initialize(ResidualGraph residualGraph, int source, int sink, int[] residualCapacities) {
+        int verticesCount = residualGraph.verticesCount;
+        this.residualGraph = residualGraph;
+        this.residualCapacities = residualCapacities;
+        this.verticesCount = verticesCount;
+        this.source = source;
+        this.sink = sink;
+
+        // the scratch arrays are kept across the solves on graphs of the same size, the global relabel resetting all but the excess.
+        if (this.labels == null || this.labels.length != verticesCount) {
+            this.labels = new int[verticesCount];
+            this.excess = new int[verticesCount];
+            this.currentArcs = new int[verticesCount];
+            this.queue = new int[verticesCount];
+            this.activeHeads = new int[verticesCount + 1];
+            this.activeNext = new int[verticesCount];
+            this.bucketHeads = new int[verticesCount + 1];
+            this.bucketNext = new int[verticesCount];
+            this.bucketPrevious = new int[verticesCount];
+        } else {
+            Arrays.fill(this.excess, 0);
+        }
+
+        this.globalRelabelThreshold = (long) GLOBAL_RELABEL_ALPHA * verticesCount + residualGraph.getArcsCount() / 2;
+    }
+
+    /**
+     * Pushes the excess of the node along admissible arcs, relabeling it when none is left.
+     * @param node
+     */
+    private void discharge(int node) {
+        int[] offsets = this.residualGraph.offsets, targets = this.residualGraph.targets, reverseArcs = this.residualGraph.reverseArcs;
+        int[] residualCapacities = this.residualCapacities;
+
+        while (this.excess[node] > 0) {
+            int label = this.labels[node], end = offsets[node + 1];
+            int arc = this.currentArcs[node];
+            for (; arc < end; arc++) {
+                int adjacentNode = targets[arc];
+                if (residualCapacities[arc] > 0 && this.labels[adjacentNode] == label - 1) {
+                    int delta = Math.min(this.excess[node], residualCapacities[arc]);
+                    residualCapacities[arc] -= delta;
+                    residualCapacities[reverseArcs[arc]] += delta;
+                    if (this.excess[adjacentNode] == 0 && adjacentNode != this.sink) {
+                        this.addActive(adjacentNode);
+                    }
+                    this.excess[adjacentNode] += delta;
+                    this.excess[node] -= delta;
+                    if (this.excess[node] == 0) {
+                        break;
+                    }
+                }
+            }
+            this.currentArcs[node] = arc;
+
+            if (this.excess[node] > 0) {
+                this.relabel(node);
+                if (this.labels[node] >= this.verticesCount) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Raises the label of the node to one above its lowest residual neighbour,
+     * or applies the gap heuristic when the node was the last one with its label.
+     * @param node
+     */
+    private void relabel(int node) {
+        int[] offsets = this.residualGraph.offsets, targets = this.residualGraph.targets;
+        int oldLabel = this.labels[node];
+        this.relabelWork += RELABEL_WORK + offsets[node + 1] - offsets[node];
+
+        this.removeFromBucket(node, oldLabel);
+        if (this.bucketHeads[oldLabel] < 0) {
+            this.removeGap(oldLabel);
+            this.labels[node] = this.verticesCount;
+            return;
+        }
+
+        int newLabel = this.verticesCount, minArc = -1;
+        for (int arc = offsets[node]; arc < offsets[node + 1]; arc++) {
+            if (this.residualCapacities[arc] > 0 && this.labels[targets[arc]] + 1 < newLabel) {
+                newLabel = this.labels[targets[arc]] + 1;
+                minArc = arc;
+            }
+        }
+
+        this.labels[node] = newLabel;
+        if (newLabel < this.verticesCount) {
+            this.currentArcs[node] = minArc;
+            this.addToBucket(node, newLabel);
+            this.maxLabel = Math.max(this.maxLabel, newLabel);
+        }
+    }
+
+    /**
+     * Lifts every node labeled above the gap to V, since none of them can reach the sink anymore.
+     * @param gapLabel
+     */
+    private void removeGap(int gapLabel) {
+        for (int label = gapLabel + 1; label <= this.maxLabel; label++) {
+            for (int node = this.bucketHeads[label]; node >= 0; node = this.bucketNext[node]) {
+                this.labels[node] = this.verticesCount;
+            }
+            this.bucketHeads[label] = -1;
+            this.activeHeads[label] = -1;
+        }
+        this.maxLabel = gapLabel - 1;
+        this.maxActiveLabel = Math.min(this.maxActiveLabel, this.maxLabel);
+    }
+
+    /**
+     * Sets the labels to the exact residual distances to the sink with a reverse BFS,
+     * nodes which cannot reach the sink are lifted to V, and rebuilds the buckets.
+     */
+    private void globalRelabel() {
+        int[] offsets = this.residualGraph.offsets, targets = this.residualGraph.targets, reverseArcs = this.residualGraph.reverseArcs;
+        int verticesCount = this.verticesCount;
+
+        Arrays.fill(this.labels, verticesCount);
+        Arrays.fill(this.activeHeads, -1);
+        Arrays.fill(this.bucketHeads, -1);
+        this.maxActiveLabel = -1;
+        this.maxLabel = 0;
+        this.relabelWork = 0;
+
+        int head = 0, tail = 0;
+        this.queue[tail++] = this.sink;
+        this.labels[this.sink] = 0;
+        this.addToBucket(this.sink, 0);
+
+        while (head < tail) {
+            int currentNode = this.queue[head++];
+            int nextLabel = this.labels[currentNode] + 1;
+            for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                int adjacentNode = targets[arc];
+                // the adjacent node reaches the current one through the paired reverse arc.
+                if (this.labels[adjacentNode] == verticesCount && adjacentNode != this.source
+                        && this.residualCapacities[reverseArcs[arc]] > 0) {
+                    this.labels[adjacentNode] = nextLabel;
+                    this.currentArcs[adjacentNode] = offsets[adjacentNode];
+                    this.addToBucket(adjacentNode, nextLabel);
+                    this.maxLabel = nextLabel;
+                    if (this.excess[adjacentNode] > 0) {
+                        this.addActive(adjacentNode);
+                    }
+                    this.queue[tail++] = adjacentNode;
+                }
+            }
+        }
+    }
+
+    private void addActive(int node) {
+        int label = this.labels[node];
+        this.activeNext[node] = this.activeHeads[label];
+        this.activeHeads[label] = node;
+        this.maxActiveLabel = Math.max(this.maxActiveLabel, label);
+    }
+
+    private void addToBucket(int node, int label) {
+        int head = this.bucketHeads[label];
+        this.bucketNext[node] = head;
+        this.bucketPrevious[node] = -1;
+        if (head >= 0) {
+            this.bucketPrevious[head] = node;
+        }
+        this.bucketHeads[label] = node;
+    }
+
+    private void removeFromBucket(int node, int label) {
+        int previous = this.bucketPrevious[node], next = this.bucketNext[node];
+        if (previous >= 0) {
+            this.bucketNext[previous] = next;
+        } else {
+            this.bucketHeads[label] = next;
+        }
+        if (next >= 0) {
+            this.bucketPrevious[next] = previous;
+        }
+    }
+}
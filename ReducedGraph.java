@@ -0,0 +1,415 @@
+package networkflow.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Flow graph reduced before solving, with the same max flow and a mapping back to the original edges!
+ * 1. nodes not on any s-t path, ie. not reachable from the source or not reaching the sink, are dropped,
+ *    along with the edges of zero capacity.
+ * 2. parallel edges u -> v are merged into one, of the summed capacity.
+ * 3. chains u -> v -> w, where v has no other edge, are contracted into u -> w of the bottleneck capacity.
+ *    Flow conservation at v makes both edges carry the same flow, and a chain closing a cycle carries none.
+ * Merging and contraction are repeated until neither applies, since each may enable the other.
+ * Every reduced edge keeps the series-parallel tree of the original edges it stands for, and the flow
+ * of the reduced edge is expanded along it: a series gives its flow to all its parts, a parallel splits it
+ * greedily between its parts, each one taking at most its capacity.
+ */
+public class ReducedGraph {
+    private static final byte LEAF = 0, SERIES = 1, PARALLEL = 2;
+
+    public final ResidualGraph residualGraph;
+    public final int source;
+    public final int sink;
+    public final int[] originalNodes; // reduced node -> original node.
+    public final int originalEdgesCount;
+
+    private final int[] edgeTrees; // reduced edge -> root of its tree.
+    private final byte[] treeKinds;
+    private final long[] treeCapacities;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+
+    private ReducedGraph(Reducer reducer, int[] originalNodes, int[] nodeIndices, int originalEdgesCount) {
+        int edgesCount = 0;
+        for (int edge = 0; edge < reducer.edgesCount; edge++) {
+            if (reducer.alive[edge]) {
+                edgesCount++;
+            }
+        }
+
+        int[] fromNodes = new int[edgesCount], toNodes = new int[edgesCount], capacities = new int[edgesCount];
+        this.edgeTrees = new int[edgesCount];
+        for (int edge = 0, index = 0; edge < reducer.edgesCount; edge++) {
+            if (reducer.alive[edge]) {
+                fromNodes[index] = nodeIndices[reducer.fromNodes[edge]];
+                toNodes[index] = nodeIndices[reducer.toNodes[edge]];
+                capacities[index] = Math.toIntExact(reducer.treeCapacities[reducer.trees[edge]]);
+                this.edgeTrees[index++] = reducer.trees[edge];
+            }
+        }
+
+        this.residualGraph = ResidualGraph.FromArrays(originalNodes.length, fromNodes, toNodes, capacities, edgesCount);
+        this.source = nodeIndices[reducer.source];
+        this.sink = nodeIndices[reducer.sink];
+        this.originalNodes = originalNodes;
+        this.originalEdgesCount = originalEdgesCount;
+        this.treeKinds = Arrays.copyOf(reducer.treeKinds, reducer.treesCount);
+        this.treeCapacities = Arrays.copyOf(reducer.treeCapacities, reducer.treesCount);
+        this.firstChildren = Arrays.copyOf(reducer.firstChildren, reducer.treesCount);
+        this.nextSiblings = Arrays.copyOf(reducer.nextSiblings, reducer.treesCount);
+    }
+
+    /**
+     * Reduces the flow graph, which must have int capacities.
+     * @param graph
+     * @return
+     */
+    public static ReducedGraph Reduce(FlowGraph graph) {
+        if (graph.hasLongCapacities()) {
+            throw new IllegalStateException("Invalid operation, the total capacity " + graph.getTotalCapacity() + " exceeds the int range.");
+        }
+        // read by index, so that a graph loaded from the binary format does not create its edge list.
+        int edgesCount = graph.getEdgesCount();
+        Reducer reducer = new Reducer(graph.vertices.size(), edgesCount, graph.getSource(), graph.getSink());
+        for (int edge = 0; edge < edgesCount; edge++) {
+            reducer.addEdge(graph.getFromNode(edge), graph.getToNode(edge), graph.getCapacity(edge));
+        }
+        return ReducedGraph.Reduce(reducer);
+    }
+
+    /**
+     * Reduces the graph given by its edges, whose total capacity must fit in an int.
+     * @param verticesCount
+     * @param edges
+     * @param source
+     * @param sink
+     * @return
+     */
+    public static ReducedGraph Reduce(int verticesCount, List<Edge> edges, int source, int sink) {
+        Reducer reducer = new Reducer(verticesCount, edges.size(), source, sink);
+        long totalCapacity = 0;
+        for (Edge edge: edges) {
+            // checked before adding, the sum of the two non-negative longs printed unsigned cannot wrap around.
+            if (edge.capacity > Integer.MAX_VALUE - totalCapacity) {
+                throw new IllegalStateException("Invalid operation, the total capacity " + Long.toUnsignedString(totalCapacity + edge.capacity) 
+                    + " exceeds the int range.");
+            }
+            totalCapacity += edge.capacity;
+            reducer.addEdge(edge.fromNode, edge.toNode, edge.capacity);
+        }
+        return ReducedGraph.Reduce(reducer);
+    }
+
+    /**
+     * Reduces the edges added to the reducer, then renumbers the nodes left.
+     * @param reducer
+     * @return
+     */
+    private static ReducedGraph Reduce(Reducer reducer) {
+        int verticesCount = reducer.verticesCount, source = reducer.source, sink = reducer.sink;
+        reducer.pruneNodes();
+        boolean reduced;
+        do {
+            reducer.mergeParallelEdges();
+            reduced = reducer.contractChains();
+        } while (reduced);
+
+        // renumbering the nodes left, ie. the source, the sink and the ends of the edges alive.
+        int[] nodeIndices = new int[verticesCount];
+        Arrays.fill(nodeIndices, -1);
+        nodeIndices[source] = 0;
+        int reducedCount = 1;
+        if (sink != source) {
+            nodeIndices[sink] = reducedCount++;
+        }
+        for (int edge = 0; edge < reducer.edgesCount; edge++) {
+            if (reducer.alive[edge]) {
+                if (nodeIndices[reducer.fromNodes[edge]] < 0) {
+                    nodeIndices[reducer.fromNodes[edge]] = reducedCount++;
+                }
+                if (nodeIndices[reducer.toNodes[edge]] < 0) {
+                    nodeIndices[reducer.toNodes[edge]] = reducedCount++;
+                }
+            }
+        }
+        int[] originalNodes = new int[reducedCount];
+        for (int node = 0; node < verticesCount; node++) {
+            if (nodeIndices[node] >= 0) {
+                originalNodes[nodeIndices[node]] = node;
+            }
+        }
+
+        return new ReducedGraph(reducer, originalNodes, nodeIndices, reducer.edgesCount);
+    }
+
+    public int getEdgesCount() {
+        return this.edgeTrees.length;
+    }
+
+    /**
+     * Expands the flows of the reduced edges (eg. MaxFlowResult.edgeFlows) into flows of the original edges,
+     * the edges dropped by the reduction carrying no flow.
+     * @param reducedEdgeFlows
+     * @return
+     */
+    public int[] expandEdgeFlows(int[] reducedEdgeFlows) {
+        int[] edgeFlows = new int[this.originalEdgesCount];
+        int[] stackTrees = new int[16];
+        long[] stackFlows = new long[16];
+
+        for (int edge = 0; edge < this.edgeTrees.length; edge++) {
+            int depth = 0;
+            stackTrees[depth] = this.edgeTrees[edge];
+            stackFlows[depth++] = reducedEdgeFlows[edge];
+
+            while (depth > 0) {
+                int tree = stackTrees[--depth];
+                long flow = stackFlows[depth];
+                if (this.treeKinds[tree] == LEAF) {
+                    edgeFlows[tree] = (int) flow;
+                    continue;
+                }
+                for (int child = this.firstChildren[tree]; child >= 0; child = this.nextSiblings[child]) {
+                    long childFlow = this.treeKinds[tree] == SERIES ? flow : Math.min(flow, this.treeCapacities[child]);
+                    if (this.treeKinds[tree] == PARALLEL) {
+                        flow -= childFlow;
+                    }
+                    if (depth == stackTrees.length) {
+                        stackTrees = Arrays.copyOf(stackTrees, 2 * depth);
+                        stackFlows = Arrays.copyOf(stackFlows, 2 * depth);
+                    }
+                    stackTrees[depth] = child;
+                    stackFlows[depth++] = childFlow;
+                }
+            }
+        }
+
+        return edgeFlows;
+    }
+
+    /**
+     * Mutable edge arrays of the reduction, the trees of the original edges being the leaves 0 .. E - 1.
+     */
+    private static class Reducer {
+        final int verticesCount;
+        final int source;
+        final int sink;
+        final int edgesCount;
+        final int[] fromNodes;
+        final int[] toNodes;
+        final int[] trees;
+        final boolean[] alive;
+
+        byte[] treeKinds;
+        long[] treeCapacities;
+        int[] firstChildren;
+        int[] nextSiblings;
+        int treesCount;
+
+        Reducer(int verticesCount, int edgesCount, int source, int sink) {
+            this.verticesCount = verticesCount;
+            this.source = source;
+            this.sink = sink;
+            this.edgesCount = edgesCount;
+            this.fromNodes = new int[this.edgesCount];
+            this.toNodes = new int[this.edgesCount];
+            this.trees = new int[this.edgesCount];
+            this.alive = new boolean[this.edgesCount];
+
+            int treesCapacity = Math.max(16, this.edgesCount + this.edgesCount / 2);
+            this.treeKinds = new byte[treesCapacity];
+            this.treeCapacities = new long[treesCapacity];
+            this.firstChildren = new int[treesCapacity];
+            this.nextSiblings = new int[treesCapacity];
+        }
+
+        /**
+         * Adds the next original edge, as a leaf tree.
+         * @param fromNode
+         * @param toNode
+         * @param capacity
+         */
+        void addEdge(int fromNode, int toNode, long capacity) {
+            int index = this.treesCount;
+            this.fromNodes[index] = fromNode;
+            this.toNodes[index] = toNode;
+            this.trees[index] = this.createTree(LEAF, capacity, -1, -1);
+            this.alive[index] = capacity > 0;
+        }
+
+        /**
+         * Drops the edges with an end not reachable from the source, or not reaching the sink.
+         */
+        void pruneNodes() {
+            boolean[] fromSource = this.reach(this.source, true), toSink = this.reach(this.sink, false);
+            for (int edge = 0; edge < this.edgesCount; edge++) {
+                int u = this.fromNodes[edge], v = this.toNodes[edge];
+                this.alive[edge] &= fromSource[u] && toSink[u] && fromSource[v] && toSink[v];
+            }
+        }
+
+        /**
+         * Merges the edges alive with the same ends, after a counting sort by tail then head.
+         */
+        void mergeParallelEdges() {
+            int[] byHead = this.sortEdges(null, this.toNodes);
+            int[] sorted = this.sortEdges(byHead, this.fromNodes);
+
+            int previous = -1;
+            for (int edge: sorted) {
+                if (previous >= 0 && this.fromNodes[edge] == this.fromNodes[previous] && this.toNodes[edge] == this.toNodes[previous]) {
+                    this.trees[previous] = this.combineTrees(PARALLEL, this.trees[previous], this.trees[edge]);
+                    this.alive[edge] = false;
+                } else {
+                    previous = edge;
+                }
+            }
+        }
+
+        /**
+         * Contracts the nodes, other than the source and the sink, with one inward and one outward edge.
+         * The inward edge u -> v takes over the outward edge v -> w, so that the single edges of u and w stay valid.
+         * returns true if any node was contracted.
+         * @return
+         */
+        boolean contractChains() {
+            int[] inwardCounts = new int[this.verticesCount], outwardCounts = new int[this.verticesCount];
+            int[] inwardEdges = new int[this.verticesCount], outwardEdges = new int[this.verticesCount];
+            for (int edge = 0; edge < this.edgesCount; edge++) {
+                if (this.alive[edge]) {
+                    outwardCounts[this.fromNodes[edge]]++;
+                    outwardEdges[this.fromNodes[edge]] = edge;
+                    inwardCounts[this.toNodes[edge]]++;
+                    inwardEdges[this.toNodes[edge]] = edge;
+                }
+            }
+
+            boolean contracted = false;
+            for (int v = 0; v < this.verticesCount; v++) {
+                if (v == this.source || v == this.sink || inwardCounts[v] != 1 || outwardCounts[v] != 1) {
+                    continue;
+                }
+                int inward = inwardEdges[v], outward = outwardEdges[v];
+                int u = this.fromNodes[inward], w = this.toNodes[outward];
+                inwardCounts[v] = outwardCounts[v] = 0;
+                this.alive[outward] = false;
+                contracted = true;
+
+                if (u == w) { // a cycle through v, which carries no s-t flow.
+                    this.alive[inward] = false;
+                    // the single edges of u may now be stale, leaving it to the next pass.
+                    inwardCounts[u] = outwardCounts[u] = 0;
+                    continue;
+                }
+                this.toNodes[inward] = w;
+                this.trees[inward] = this.combineTrees(SERIES, this.trees[inward], this.trees[outward]);
+                if (inwardEdges[w] == outward) {
+                    inwardEdges[w] = inward;
+                }
+            }
+
+            return contracted;
+        }
+
+        /**
+         * Marks the nodes reachable from the node along the edges alive, forward or backward.
+         * @param start
+         * @param forward
+         * @return
+         */
+        private boolean[] reach(int start, boolean forward) {
+            int[] tails = forward ? this.fromNodes : this.toNodes, heads = forward ? this.toNodes : this.fromNodes;
+            int[] offsets = new int[this.verticesCount + 1], adjacentNodes = new int[this.edgesCount];
+            for (int edge = 0; edge < this.edgesCount; edge++) {
+                if (this.alive[edge]) {
+                    offsets[tails[edge] + 1]++;
+                }
+            }
+            for (int u = 0; u < this.verticesCount; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+            int[] nextIndex = Arrays.copyOf(offsets, this.verticesCount);
+            for (int edge = 0; edge < this.edgesCount; edge++) {
+                if (this.alive[edge]) {
+                    adjacentNodes[nextIndex[tails[edge]]++] = heads[edge];
+                }
+            }
+
+            boolean[] reached = new boolean[this.verticesCount];
+            int[] queue = new int[this.verticesCount];
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            reached[start] = true;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int index = offsets[u]; index < offsets[u + 1]; index++) {
+                    if (!reached[adjacentNodes[index]]) {
+                        reached[adjacentNodes[index]] = true;
+                        queue[tail++] = adjacentNodes[index];
+                    }
+                }
+            }
+            return reached;
+        }
+
+        /**
+         * Stable counting sort of the edges alive by the node key, taken in the given order, or by index if null.
+         * @param order
+         * @param keys
+         * @return
+         */
+        private int[] sortEdges(int[] order, int[] keys) {
+            int[] counts = new int[this.verticesCount + 1];
+            int aliveCount = 0;
+            for (int edge = 0; edge < this.edgesCount; edge++) {
+                if (this.alive[edge]) {
+                    counts[keys[edge] + 1]++;
+                    aliveCount++;
+                }
+            }
+            for (int u = 0; u < this.verticesCount; u++) {
+                counts[u + 1] += counts[u];
+            }
+
+            int[] sorted = new int[aliveCount];
+            int inputCount = order != null ? order.length : this.edgesCount;
+            for (int index = 0; index < inputCount; index++) {
+                int edge = order != null ? order[index] : index;
+                if (this.alive[edge]) {
+                    sorted[counts[keys[edge]]++] = edge;
+                }
+            }
+            return sorted;
+        }
+
+        /**
+         * Combines the two trees under a new series or parallel tree.
+         * @param kind
+         * @param left
+         * @param right
+         * @return
+         */
+        private int combineTrees(byte kind, int left, int right) {
+            long capacity = kind == SERIES ? Math.min(this.treeCapacities[left], this.treeCapacities[right])
+                                           : this.treeCapacities[left] + this.treeCapacities[right];
+            this.nextSiblings[left] = right;
+            return this.createTree(kind, capacity, left, -1);
+        }
+
+        private int createTree(byte kind, long capacity, int firstChild, int nextSibling) {
+            if (this.treesCount == this.treeKinds.length) {
+                int newLength = 2 * this.treesCount;
+                this.treeKinds = Arrays.copyOf(this.treeKinds, newLength);
+                this.treeCapacities = Arrays.copyOf(this.treeCapacities, newLength);
+                this.firstChildren = Arrays.copyOf(this.firstChildren, newLength);
+                this.nextSiblings = Arrays.copyOf(this.nextSiblings, newLength);
+            }
+            this.treeKinds[this.treesCount] = kind;
+            this.treeCapacities[this.treesCount] = capacity;
+            this.firstChildren[this.treesCount] = firstChild;
+            this.nextSiblings[this.treesCount] = nextSibling;
+            return this.treesCount++;
+        }
+    }
+}
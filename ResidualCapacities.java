@@ -0,0 +1,21 @@
+package networkflow.core;
+
+/**
+ * Residual capacities of the arcs of a GraphAccess, updated in place by the solvers.
+ */
+public interface ResidualCapacities {
+    long get(long arc);
+
+    void set(long arc, long capacity);
+
+    /**
+     * Pushes the flow along the arc, taking it from the arc and giving it to its reverse arc.
+     * @param arc
+     * @param reverseArc
+     * @param flow
+     */
+    default void push(long arc, long reverseArc, long flow) {
+        this.set(arc, this.get(arc) - flow);
+        this.set(reverseArc, this.get(reverseArc) + flow);
+    }
+}
@@ -0,0 +1,156 @@
+package networkflow.core;
+
+import java.util.List;
+
+/**
+ * Residual graph stored in compressed sparse row (CSR) form!
+ * Every input edge u -> v becomes a pair of arcs: the forward arc u -> v carrying the capacity,
+ * and the backward arc v -> u with zero capacity (the same capacity when undirected), each pointing at the other through reverseArcs.
+ * The arcs leaving node u are stored at indices offsets[u] .. offsets[u + 1] - 1.
+ * Memory is O(V + E), unlike the V x V capacity matrix.
+ * Capacities are ints, graphs whose total capacity does not fit in an int use LongResidualGraph.
+ */
+public class ResidualGraph {
+    public final int verticesCount;
+    public final int[] offsets;
+    public final int[] targets;
+    public final int[] capacities;
+    public final int[] reverseArcs;
+    public final int[] edgeArcs; // edge index (input order) -> forward arc index.
+    public final long[] costs; // cost per unit of flow, negated on the backward arcs, null when no edge has a cost.
+
+    private ResidualGraph(int verticesCount, int arcsCount, int edgesCount, boolean hasCosts) {
+        this.verticesCount = verticesCount;
+        this.offsets = new int[verticesCount + 1];
+        this.targets = new int[arcsCount];
+        this.capacities = new int[arcsCount];
+        this.reverseArcs = new int[arcsCount];
+        this.edgeArcs = new int[edgesCount];
+        this.costs = hasCosts ? new long[arcsCount] : null;
+    }
+
+    /**
+     * Builds the residual graph from the edge list with a counting sort on the tail node.
+     * @param verticesCount
+     * @param edges
+     * @return
+     */
+    public static ResidualGraph FromEdges(int verticesCount, List<Edge> edges) {
+        return ResidualGraph.FromEdges(verticesCount, edges, false);
+    }
+
+    /**
+     * Builds the residual graph of the undirected graph, each edge giving both of its arcs the capacity.
+     * The edge costs are left out, since a cost would not be paid back by flow cancelled along the backward arc.
+     * @param verticesCount
+     * @param edges
+     * @return
+     */
+    public static ResidualGraph FromUndirectedEdges(int verticesCount, List<Edge> edges) {
+        return ResidualGraph.FromEdges(verticesCount, edges, true);
+    }
+
+    private static ResidualGraph FromEdges(int verticesCount, List<Edge> edges, boolean undirected) {
+        boolean hasCosts = false;
+        for (int index = 0; index < edges.size() && !undirected && !hasCosts; index++) {
+            hasCosts = edges.get(index).cost != 0;
+        }
+        ResidualGraph graph = new ResidualGraph(verticesCount, 2 * edges.size(), edges.size(), hasCosts);
+
+        // counting arcs per node, forward arc at the tail and backward arc at the head.
+        for (Edge edge: edges) {
+            graph.offsets[edge.fromNode + 1]++;
+            graph.offsets[edge.toNode + 1]++;
+        }
+        for (int u = 0; u < verticesCount; u++) {
+            graph.offsets[u + 1] += graph.offsets[u];
+        }
+
+        int[] nextArc = new int[verticesCount];
+        System.arraycopy(graph.offsets, 0, nextArc, 0, verticesCount);
+
+        int edgeIndex = 0;
+        for (Edge edge: edges) {
+            int forward = nextArc[edge.fromNode]++;
+            int backward = nextArc[edge.toNode]++;
+
+            graph.targets[forward] = edge.toNode;
+            graph.capacities[forward] = Math.toIntExact(edge.capacity);
+            graph.reverseArcs[forward] = backward;
+
+            graph.targets[backward] = edge.fromNode;
+            graph.capacities[backward] = undirected ? graph.capacities[forward] : 0;
+            graph.reverseArcs[backward] = forward;
+
+            if (hasCosts) {
+                graph.costs[forward] = edge.cost;
+                graph.costs[backward] = -edge.cost;
+            }
+
+            graph.edgeArcs[edgeIndex++] = forward;
+        }
+
+        return graph;
+    }
+
+    /**
+     * Builds the residual graph from edges given as primitive arrays, the first edgesCount entries being used.
+     * @param verticesCount
+     * @param fromNodes
+     * @param toNodes
+     * @param capacities
+     * @param edgesCount
+     * @return
+     */
+    public static ResidualGraph FromArrays(int verticesCount, int[] fromNodes, int[] toNodes, int[] capacities, int edgesCount) {
+        ResidualGraph graph = new ResidualGraph(verticesCount, 2 * edgesCount, edgesCount, false);
+
+        for (int edge = 0; edge < edgesCount; edge++) {
+            graph.offsets[fromNodes[edge] + 1]++;
+            graph.offsets[toNodes[edge] + 1]++;
+        }
+        for (int u = 0; u < verticesCount; u++) {
+            graph.offsets[u + 1] += graph.offsets[u];
+        }
+
+        int[] nextArc = new int[verticesCount];
+        System.arraycopy(graph.offsets, 0, nextArc, 0, verticesCount);
+
+        for (int edge = 0; edge < edgesCount; edge++) {
+            int forward = nextArc[fromNodes[edge]]++;
+            int backward = nextArc[toNodes[edge]]++;
+
+            graph.targets[forward] = toNodes[edge];
+            graph.capacities[forward] = capacities[edge];
+            graph.reverseArcs[forward] = backward;
+
+            graph.targets[backward] = fromNodes[edge];
+            graph.reverseArcs[backward] = forward;
+
+            graph.edgeArcs[edge] = forward;
+        }
+
+        return graph;
+    }
+
+    public int getArcsCount() {
+        return this.targets.length;
+    }
+
+    /**
+     * Gets the tail node of the arc, ie. the head of its paired reverse arc.
+     * @param arc
+     * @return
+     */
+    public int getArcSource(int arc) {
+        return this.targets[this.reverseArcs[arc]];
+    }
+
+    /**
+     * Creates a fresh copy of the initial capacities, to be used as residual capacities by a solver.
+     * @return
+     */
+    public int[] copyCapacities() {
+        return this.capacities.clone();
+    }
+}
@@ -0,0 +1,320 @@
+package networkflow.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class to generate large benchmark graphs in the adjacency-list input format.
+ * The edges of each node are generated when its line is written, straight into a buffered file channel,
+ * so memory stays O(V) whatever the number of edges, and no edge is ever rejected and redrawn.
+ * Graphs are generated in parallel, each one with its own random generator split from the seed,
+ * so the same seed gives the same files whatever the number of threads.
+ */
+public class StreamingGraphGenerator {
+
+    private static String BasePath = System.getProperty("user.dir");
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final GraphModel model;
+    private final int numberOfNodes;
+    private final int averageDegree;
+    private final int maxCapacity;
+    private final SplittableRandom random;
+
+    private ByteBuffer buffer;
+    private FileChannel channel;
+    private int[] lineTargets = new int[16];
+
+    public StreamingGraphGenerator(GraphModel model, int numberOfNodes, int averageDegree, int maxCapacity, SplittableRandom random) {
+        if (numberOfNodes < 2) {
+            throw new IllegalArgumentException("Invalid input, a graph needs at least the source and the sink nodes.");
+        }
+        this.model = model;
+        this.numberOfNodes = numberOfNodes;
+        this.averageDegree = Math.max(1, averageDegree);
+        this.maxCapacity = Math.max(1, maxCapacity);
+        this.random = random;
+    }
+
+    /**
+     * main method, or entrance point of the program.
+     * @param args
+     */
+    public static void main(String... args) {
+        if (args.length != 6 && args.length != 7) {
+            System.out.println("Invalid input, use syntax: program.exe model nodes average_degree max_capacity no_of_graphs seed [threads]");
+            System.out.println("models: erdos-renyi, grid, layered-dag, power-law");
+            return;
+        }
+
+        GraphModel model = GraphModel.FromName(args[0]);
+        int numberOfNodes = Integer.parseInt(args[1]),
+            averageDegree = Integer.parseInt(args[2]),
+            maxCapacity = Integer.parseInt(args[3]),
+            numberOfGraphs = Integer.parseInt(args[4]);
+        long seed = Long.parseLong(args[5]);
+        int threads = args.length == 7 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+
+        try {
+            List<Path> files = StreamingGraphGenerator.GenerateGraphs(model, numberOfNodes, averageDegree, maxCapacity, numberOfGraphs, seed, threads);
+            for (Path file: files) {
+                System.out.println(file.getFileName());
+            }
+        } catch (Exception e) {
+            System.out.println("An error occurred while generating the graphs.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Generates the graphs in parallel into the fileinput directory, returning their files in order.
+     * @param model
+     * @param numberOfNodes
+     * @param averageDegree
+     * @param maxCapacity
+     * @param numberOfGraphs
+     * @param seed
+     * @param threads
+     * @return
+     * @throws Exception
+     */
+    public static List<Path> GenerateGraphs(GraphModel model, int numberOfNodes, int averageDegree, int maxCapacity, int numberOfGraphs, long seed, int threads) throws Exception {
+        // splitting the generators up front, so that each graph gets the same one whatever the thread count.
+        SplittableRandom root = new SplittableRandom(seed);
+        List<StreamingGraphGenerator> generators = new ArrayList<>(numberOfGraphs);
+        for (int i = 0; i < numberOfGraphs; i++) {
+            generators.add(new StreamingGraphGenerator(model, numberOfNodes, averageDegree, maxCapacity, root.split()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, numberOfGraphs)));
+        try {
+            List<Future<Path>> results = new ArrayList<>(numberOfGraphs);
+            for (int i = 0; i < numberOfGraphs; i++) {
+                StreamingGraphGenerator generator = generators.get(i);
+                Path file = Paths.get(BasePath, "fileinput", model.modelName + "_" + numberOfNodes + "_" + seed + "_" + i + ".txt");
+                results.add(executor.submit(() -> generator.generate(file)));
+            }
+
+            List<Path> files = new ArrayList<>(numberOfGraphs);
+            for (Future<Path> result: results) {
+                files.add(result.get());
+            }
+            return files;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Generates the graph into the file, line by line.
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public Path generate(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+            switch (this.model) {
+                case ERDOS_RENYI: this.generateErdosRenyi(); break;
+                case GRID: this.generateGrid(); break;
+                case LAYERED_DAG: this.generateLayeredDag(); break;
+                case POWER_LAW: this.generatePowerLaw(); break;
+            }
+
+            this.flush();
+        } finally {
+            this.channel = null;
+            this.buffer = null;
+        }
+        return file;
+    }
+
+    /**
+     * Each node links to the next one, so the sink is always reachable, and then to every node but the
+     * source with probability p, the gaps between the picked nodes being drawn from the geometric distribution.
+     * @throws IOException
+     */
+    private void generateErdosRenyi() throws IOException {
+        int n = this.numberOfNodes, sink = n - 1;
+        double p = Math.min(1.0, (double) this.averageDegree / n), logOfMiss = Math.log(1.0 - p);
+
+        for (int u = 0; u < sink; u++) {
+            int count = 0;
+            this.addTarget(count++, u + 1);
+            for (long v = 0; ; ) {
+                v += 1 + (p >= 1.0 ? 0 : (long) Math.floor(Math.log(1.0 - this.random.nextDouble()) / logOfMiss));
+                if (v > sink) {
+                    break;
+                }
+                if (v != u && v != u + 1) {
+                    this.addTarget(count++, (int) v);
+                }
+            }
+            this.writeLine(count);
+        }
+        this.writeLine(0);
+    }
+
+    /**
+     * Nodes are laid out row by row in a square grid, linking to their right and bottom neighbours.
+     * The nodes of the last row which do not fill it link to the next node, and the last node is the sink.
+     * @throws IOException
+     */
+    private void generateGrid() throws IOException {
+        int n = this.numberOfNodes, width = (int) Math.ceil(Math.sqrt(n));
+
+        for (int u = 0; u < n - 1; u++) {
+            int count = 0;
+            if ((u + 1) % width != 0 || u + width >= n) {
+                this.addTarget(count++, u + 1);
+            }
+            if (u + width < n) {
+                this.addTarget(count++, u + width);
+            }
+            this.writeLine(count);
+        }
+        this.writeLine(0);
+    }
+
+    /**
+     * The source links to the first layer, each layer node to the node below it and to random nodes of the
+     * next layer, and the last layer to the sink. The last layer is narrower when the nodes do not divide evenly.
+     * @throws IOException
+     */
+    private void generateLayeredDag() throws IOException {
+        int n = this.numberOfNodes, sink = n - 1, innerNodes = n - 2;
+        int width = Math.max(1, (int) Math.round(Math.sqrt(innerNodes)));
+
+        int count = 0;
+        if (innerNodes == 0) {
+            this.addTarget(count++, sink);
+        }
+        for (int v = 1; v <= Math.min(width, innerNodes); v++) {
+            this.addTarget(count++, v);
+        }
+        this.writeLine(count);
+
+        for (int u = 1; u < sink; u++) {
+            count = 0;
+            int layerStart = 1 + ((u - 1) / width) * width, nextLayerStart = layerStart + width;
+            if (nextLayerStart >= sink) {
+                this.addTarget(count++, sink);
+            } else {
+                int nextLayerWidth = Math.min(width, sink - nextLayerStart);
+                this.addTarget(count++, nextLayerStart + Math.min(u - layerStart, nextLayerWidth - 1));
+                for (int i = 1; i < this.averageDegree; i++) {
+                    this.addTarget(count++, nextLayerStart + this.random.nextInt(nextLayerWidth));
+                }
+            }
+            this.writeLine(count);
+        }
+        this.writeLine(0);
+    }
+
+    /**
+     * Expected degrees follow a power law with exponent 2.5 over the node ids, and each target is drawn
+     * with probability proportional to its weight, by a binary search over the cumulative weights.
+     * Each node also links to the next one, so that the sink is always reachable.
+     * @throws IOException
+     */
+    private void generatePowerLaw() throws IOException {
+        int n = this.numberOfNodes, sink = n - 1;
+        double exponent = 1.0 / (2.5 - 1.0);
+
+        // cumulative weights of the nodes 1 .. n - 1, the source never being a target.
+        double[] cumulativeWeights = new double[n];
+        for (int v = 1; v < n; v++) {
+            cumulativeWeights[v] = cumulativeWeights[v - 1] + Math.pow(v, -exponent);
+        }
+        double totalWeight = cumulativeWeights[sink], meanWeight = totalWeight / sink;
+
+        for (int u = 0; u < sink; u++) {
+            int count = 0;
+            this.addTarget(count++, u + 1);
+            double weight = u == 0 ? meanWeight : Math.pow(u, -exponent);
+            int degree = (int) Math.min(sink - 1, Math.round(this.averageDegree * weight / meanWeight));
+            for (int i = 1; i < degree; i++) {
+                int index = Arrays.binarySearch(cumulativeWeights, 1, n, this.random.nextDouble() * totalWeight);
+                int v = Math.min(index >= 0 ? index : -index - 1, sink);
+                if (v != u) {
+                    this.addTarget(count++, v);
+                }
+            }
+            this.writeLine(count);
+        }
+        this.writeLine(0);
+    }
+
+    private void addTarget(int index, int node) {
+        if (index == this.lineTargets.length) {
+            this.lineTargets = Arrays.copyOf(this.lineTargets, 2 * index);
+        }
+        this.lineTargets[index] = node;
+    }
+
+    /**
+     * Writes the line of the node with its distinct targets and random capacities.
+     * @param count
+     * @throws IOException
+     */
+    private void writeLine(int count) throws IOException {
+        Arrays.sort(this.lineTargets, 0, count);
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && this.lineTargets[i] == this.lineTargets[i - 1]) {
+                continue;
+            }
+            if (i > 0) {
+                this.writeByte(' ');
+            }
+            this.writeNumber(this.lineTargets[i]);
+            this.writeByte(' ');
+            this.writeNumber(1 + this.random.nextInt(this.maxCapacity));
+        }
+        this.writeByte('\n');
+    }
+
+    private void writeNumber(int number) throws IOException {
+        if (this.buffer.remaining() < 11) {
+            this.flush();
+        }
+        if (number >= 10) {
+            int divisor = 1;
+            while (number / divisor >= 10) {
+                divisor *= 10;
+            }
+            for (; divisor > 1; divisor /= 10) {
+                this.buffer.put((byte) ('0' + (number / divisor) % 10));
+            }
+        }
+        this.buffer.put((byte) ('0' + number % 10));
+    }
+
+    private void writeByte(char character) throws IOException {
+        if (!this.buffer.hasRemaining()) {
+            this.flush();
+        }
+        this.buffer.put((byte) character);
+    }
+
+    private void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
@@ -0,0 +1,175 @@
+package networkflow.algorithms.mincostflow;
+
+import java.util.Arrays;
+
+import networkflow.core.ResidualGraph;
+import networkflow.utils.IndexedMinHeap;
+
+/**
+ * The class for implementing the successive shortest path min-cost flow algorithm.
+ * Each iteration augments along a cheapest s-t path of the residual graph, found by Dijkstra's algorithm
+ * on the reduced costs c(u, v) + p(u) - p(v), which the Johnson potentials p keep non-negative.
+ * When some edge has a negative cost, the potentials are bootstrapped by SPFA (queue-based Bellman-Ford),
+ * and a negative cycle reachable from the source is rejected.
+ * Runs in O(F * E log V) for a flow of value F.
+ * Reference:
+ * 1. https://cp-algorithms.com/graph/min_cost_flow.html
+ * 2. https://en.wikipedia.org/wiki/Johnson%27s_algorithm
+ * 3. R. K. Ahuja, T. L. Magnanti, J. B. Orlin, Network Flows, section 9.7.
+ */
+public class SuccessiveShortestPath {
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    /**
+     * Solves the min-cost maximum flow.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @return
+     */
+    public MinCostFlowResult solve(ResidualGraph residualGraph, int source, int sink) {
+        return this.solve(residualGraph, source, sink, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Solves the min-cost flow of value flowLimit, or of the maximum value if the limit cannot be reached.
+     * @param residualGraph
+     * @param source
+     * @param sink
+     * @param flowLimit
+     * @return
+     */
+    public MinCostFlowResult solve(ResidualGraph residualGraph, int source, int sink, int flowLimit) {
+        int verticesCount = residualGraph.verticesCount;
+        int[] residualCapacities = residualGraph.copyCapacities();
+        long[] costs = residualGraph.costs != null ? residualGraph.costs : new long[residualGraph.getArcsCount()];
+        int flow = 0;
+        long totalCost = 0;
+
+        if (verticesCount > 0 && source != sink) {
+            int[] offsets = residualGraph.offsets, targets = residualGraph.targets, reverseArcs = residualGraph.reverseArcs;
+            long[] potentials = SuccessiveShortestPath.FindInitialPotentials(residualGraph, source, residualCapacities, costs);
+            long[] distances = new long[verticesCount];
+            int[] predecessorArcs = new int[verticesCount];
+            IndexedMinHeap heap = new IndexedMinHeap(verticesCount);
+
+            while (flow < flowLimit) {
+                // Dijkstra on the reduced costs, stopping once the sink is settled.
+                Arrays.fill(distances, UNREACHED);
+                distances[source] = 0;
+                heap.insertOrDecrease(source, 0);
+                while (!heap.isEmpty()) {
+                    int currentNode = heap.popMin();
+                    if (currentNode == sink) {
+                        break;
+                    }
+                    for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                        if (residualCapacities[arc] <= 0) {
+                            continue;
+                        }
+                        int adjacentNode = targets[arc];
+                        long distance = distances[currentNode] + costs[arc] + potentials[currentNode] - potentials[adjacentNode];
+                        if (distance < distances[adjacentNode]) {
+                            distances[adjacentNode] = distance;
+                            predecessorArcs[adjacentNode] = arc;
+                            heap.insertOrDecrease(adjacentNode, distance);
+                        }
+                    }
+                }
+                heap.clear();
+                if (distances[sink] == UNREACHED) {
+                    break;
+                }
+
+                // nodes not settled before the sink get its distance, which keeps the reduced costs non-negative.
+                for (int v = 0; v < verticesCount; v++) {
+                    potentials[v] += Math.min(distances[v], distances[sink]);
+                }
+
+                int pathMaxFlow = flowLimit - flow;
+                long pathCost = 0;
+                for (int u = sink; u != source; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                    pathMaxFlow = Math.min(pathMaxFlow, residualCapacities[predecessorArcs[u]]);
+                    pathCost += costs[predecessorArcs[u]];
+                }
+                for (int u = sink; u != source; u = targets[reverseArcs[predecessorArcs[u]]]) {
+                    int arc = predecessorArcs[u];
+                    residualCapacities[arc] -= pathMaxFlow;
+                    residualCapacities[reverseArcs[arc]] += pathMaxFlow;
+                }
+
+                flow += pathMaxFlow;
+                totalCost = Math.addExact(totalCost, Math.multiplyExact(pathCost, pathMaxFlow));
+            }
+        }
+
+        int[] edgeArcs = residualGraph.edgeArcs;
+        int[] edgeFlows = new int[edgeArcs.length];
+        for (int edge = 0; edge < edgeArcs.length; edge++) {
+            edgeFlows[edge] = residualGraph.capacities[edgeArcs[edge]] - residualCapacities[edgeArcs[edge]];
+        }
+        return new MinCostFlowResult(flow, totalCost, edgeFlows);
+    }
+
+    /**
+     * Finds the initial potentials: zero when no residual arc has a negative cost, otherwise the
+     * shortest distances from the source found by SPFA, nodes out of reach keeping zero.
+     * @param residualGraph
+     * @param source
+     * @param residualCapacities
+     * @param costs
+     * @return
+     */
+    private static long[] FindInitialPotentials(ResidualGraph residualGraph, int source, int[] residualCapacities, long[] costs) {
+        int verticesCount = residualGraph.verticesCount;
+        long[] potentials = new long[verticesCount];
+
+        boolean hasNegativeCosts = false;
+        for (int arc = 0; arc < costs.length && !hasNegativeCosts; arc++) {
+            hasNegativeCosts = costs[arc] < 0 && residualCapacities[arc] > 0;
+        }
+        if (!hasNegativeCosts) {
+            return potentials;
+        }
+
+        int[] offsets = residualGraph.offsets, targets = residualGraph.targets;
+        long[] distances = new long[verticesCount];
+        int[] queue = new int[verticesCount]; // ring, each node being queued at most once at a time.
+        boolean[] queued = new boolean[verticesCount];
+        int[] pathLengths = new int[verticesCount]; // arcs on the current shortest path to the node.
+        Arrays.fill(distances, UNREACHED);
+
+        int head = 0, queuedCount = 1;
+        distances[source] = 0;
+        queue[0] = source;
+        queued[source] = true;
+        while (queuedCount > 0) {
+            int currentNode = queue[head];
+            head = head + 1 == verticesCount ? 0 : head + 1;
+            queuedCount--;
+            queued[currentNode] = false;
+
+            for (int arc = offsets[currentNode]; arc < offsets[currentNode + 1]; arc++) {
+                int adjacentNode = targets[arc];
+                if (residualCapacities[arc] > 0 && distances[currentNode] + costs[arc] < distances[adjacentNode]) {
+                    distances[adjacentNode] = distances[currentNode] + costs[arc];
+                    // a shortest path has at most V - 1 arcs, so a longer one goes around a negative cycle.
+                    pathLengths[adjacentNode] = pathLengths[currentNode] + 1;
+                    if (pathLengths[adjacentNode] >= verticesCount) {
+                        throw new IllegalArgumentException("Invalid input, negative cost cycle reachable from the source.");
+                    }
+                    if (!queued[adjacentNode]) {
+                        queue[(head + queuedCount) % verticesCount] = adjacentNode;
+                        queued[adjacentNode] = true;
+                        queuedCount++;
+                    }
+                }
+            }
+        }
+
+        for (int v = 0; v < verticesCount; v++) {
+            potentials[v] = distances[v] == UNREACHED ? 0 : distances[v];
+        }
+        return potentials;
+    }
+}
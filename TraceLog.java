@@ -0,0 +1,104 @@
+package networkflow.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Class to write the trace output, through a single buffered writer on the standard output.
+ * The level is read from the "networkflow.log" system property, quiet by default, and the trace is bounded
+ * by the "networkflow.trace.limit" property (in characters), after which it is truncated, so that callers
+ * checking IsTraceEnabled stop building the trace once the limit is reached.
+ */
+public final class TraceLog {
+    public static final long DEFAULT_TRACE_LIMIT = 1L << 24;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    // read without the lock by IsTraceEnabled, which the solvers call on every augmentation.
+    private static volatile LogLevel Level = LogLevel.FromName(System.getProperty("networkflow.log", LogLevel.QUIET.levelName));
+    private static long TraceLimit = Long.getLong("networkflow.trace.limit", DEFAULT_TRACE_LIMIT);
+    private static long WrittenCharacters = 0;
+    private static volatile boolean Truncated = false;
+    private static final Writer Output = new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), WRITE_BUFFER_SIZE);
+
+    private TraceLog() {
+    }
+
+    public static LogLevel GetLevel() {
+        return Level;
+    }
+
+    public static void SetLevel(LogLevel level) {
+        Level = level;
+    }
+
+    /**
+     * Sets the maximum number of characters traced, and starts counting again.
+     * @param traceLimit
+     */
+    public static synchronized void SetTraceLimit(long traceLimit) {
+        if (traceLimit < 0) {
+            throw new IllegalArgumentException("Invalid input, the trace limit cannot be negative.");
+        }
+        TraceLimit = traceLimit;
+        WrittenCharacters = 0;
+        Truncated = false;
+    }
+
+    /**
+     * Checks whether the trace is written, so that callers only build it when it is, without taking the lock.
+     * @return
+     */
+    public static boolean IsTraceEnabled() {
+        return Level == LogLevel.TRACE && !Truncated;
+    }
+
+    /**
+     * Writes the text to the trace, if enabled.
+     * @param text
+     */
+    public static synchronized void Trace(CharSequence text) {
+        if (!IsTraceEnabled()) {
+            return;
+        }
+        try {
+            long remaining = TraceLimit - WrittenCharacters;
+            if (text.length() <= remaining) {
+                Output.append(text);
+                WrittenCharacters += text.length();
+            } else {
+                Output.append(text, 0, (int) remaining);
+                Output.append(System.lineSeparator() + "... trace truncated, limit of " + TraceLimit + " characters reached." + System.lineSeparator());
+                WrittenCharacters = TraceLimit;
+                Truncated = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the text and a line break to the trace, if enabled.
+     * @param text
+     */
+    public static void TraceLine(CharSequence text) {
+        if (IsTraceEnabled()) {
+            TraceLog.Trace(text + System.lineSeparator());
+        }
+    }
+
+    /**
+     * Flushes the trace written so far, to be called before printing the results.
+     */
+    public static synchronized void Flush() {
+        try {
+            Output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package networkflow.core;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Residual graph stored off-heap, in a file mapped through the Foreign Function & Memory API!
+ * The CSR arrays are memory segments of the mapped file, indexed by longs, so the graph is neither bounded
+ * by the 2^31 array index limit nor scanned by the GC, and loading it only maps the file.
+ * The residual capacities are allocated off-heap too, and all the memory is released on close.
+ * Layout, little-endian, every array starting on 8 bytes:
+ * 1. header: magic "NFGO", version, V, source, sink, padding, arcs count A (long).
+ * 2. offsets[V + 1] (longs), the arcs leaving node u are at offsets[u] .. offsets[u + 1] - 1.
+ * 3. targets[A] (ints), padded to 8 bytes.
+ * 4. reverseArcs[A] (longs).
+ * 5. capacities[A] (longs).
+ * Needs JDK 22, or JDK 21 with --enable-preview.
+ * Reference:
+ * 1. https://openjdk.org/jeps/454
+ */
+public final class OffHeapGraph implements GraphAccess, AutoCloseable {
+    public static final int MAGIC = 0x4F47464E; // "NFGO" read as a little-endian int.
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 6 * Integer.BYTES + Long.BYTES;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final Arena arena;
+    private final int verticesCount;
+    private final long arcsCount;
+    private final int source;
+    private final int sink;
+    private final MemorySegment offsets;
+    private final MemorySegment targets;
+    private final MemorySegment reverseArcs;
+    private final MemorySegment capacities;
+
+    private OffHeapGraph(Arena arena, MemorySegment file) {
+        this.arena = arena;
+        this.verticesCount = file.get(INT, 2 * Integer.BYTES);
+        this.source = file.get(INT, 3 * Integer.BYTES);
+        this.sink = file.get(INT, 4 * Integer.BYTES);
+        this.arcsCount = file.get(LONG, 6 * Integer.BYTES);
+
+        long[] positions = OffHeapGraph.GetPositions(this.verticesCount, this.arcsCount);
+        this.offsets = file.asSlice(positions[0], positions[1] - positions[0]);
+        this.targets = file.asSlice(positions[1], Integer.BYTES * this.arcsCount);
+        this.reverseArcs = file.asSlice(positions[2], positions[3] - positions[2]);
+        this.capacities = file.asSlice(positions[3], positions[4] - positions[3]);
+    }
+
+    /**
+     * Maps the off-heap graph file, read-only.
+     * @param inputFile
+     * @return
+     * @throws IOException
+     */
+    public static OffHeapGraph Map(Path inputFile) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IllegalArgumentException("Invalid input, not an off-heap graph file.");
+            }
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (file.get(INT, 0) != MAGIC) {
+                throw new IllegalArgumentException("Invalid input, not an off-heap graph file.");
+            }
+            int version = file.get(INT, Integer.BYTES);
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported off-heap graph version: " + version);
+            }
+            int verticesCount = file.get(INT, 2 * Integer.BYTES);
+            int source = file.get(INT, 3 * Integer.BYTES);
+            int sink = file.get(INT, 4 * Integer.BYTES);
+            long arcsCount = file.get(LONG, 6 * Integer.BYTES);
+            if (verticesCount < 0 || arcsCount < 0 || channel.size() != OffHeapGraph.GetPositions(verticesCount, arcsCount)[4]
+                    || source < 0 || source >= verticesCount || sink < 0 || sink >= verticesCount) {
+                throw new IllegalArgumentException("Invalid input, off-heap graph file is truncated or corrupted.");
+            }
+            return new OffHeapGraph(arena, file);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the file starts with the magic of the off-heap graph.
+     * @param inputFile
+     * @return
+     * @throws IOException
+     */
+    public static boolean IsOffHeapGraph(Path inputFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ);
+             Arena arena = Arena.ofConfined()) {
+            return channel.size() >= HEADER_SIZE && channel.map(FileChannel.MapMode.READ_ONLY, 0, Integer.BYTES, arena).get(INT, 0) == MAGIC;
+        }
+    }
+
+    /**
+     * Writes the graph to the output file in the off-heap graph layout.
+     * @param outputFile
+     * @param graph
+     * @param source
+     * @param sink
+     * @throws IOException
+     */
+    public static void Write(Path outputFile, GraphAccess graph, int source, int sink) throws IOException {
+        int verticesCount = graph.getVerticesCount();
+        long arcsCount = graph.getArcsCount();
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment file = OffHeapGraph.CreateFile(outputFile, verticesCount, arcsCount, source, sink, arena);
+            long[] positions = OffHeapGraph.GetPositions(verticesCount, arcsCount);
+            for (int u = 0; u <= verticesCount; u++) {
+                file.set(LONG, positions[0] + (long) Long.BYTES * u, graph.getFirstArc(u));
+            }
+            for (long arc = 0; arc < arcsCount; arc++) {
+                file.set(INT, positions[1] + Integer.BYTES * arc, graph.getTarget(arc));
+                file.set(LONG, positions[2] + Long.BYTES * arc, graph.getReverseArc(arc));
+                file.set(LONG, positions[3] + Long.BYTES * arc, graph.getCapacity(arc));
+            }
+            file.force();
+        }
+    }
+
+    /**
+     * Converts the graph of the binary graph format into the off-heap graph file, both mapped,
+     * so that the heap holds none of the edges: the arcs are counted per node into the offsets
+     * and then placed with a counting sort, the forward arc at the tail and the backward arc at the head.
+     * @param binaryGraphFile
+     * @param outputFile
+     * @throws IOException
+     */
+    public static void FromBinaryGraph(Path binaryGraphFile, Path outputFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(binaryGraphFile, StandardOpenOption.READ);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment input = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (channel.size() < BinaryGraphFormat.HEADER_SIZE || input.get(INT, 0) != BinaryGraphFormat.MAGIC) {
+                throw new IllegalArgumentException("Invalid input, not a binary graph file.");
+            }
+            int version = input.get(INT, Integer.BYTES);
+            if (version != BinaryGraphFormat.VERSION) {
+                throw new IllegalArgumentException("Unsupported binary graph version: " + version);
+            }
+            int verticesCount = input.get(INT, 2 * Integer.BYTES), edgesCount = input.get(INT, 3 * Integer.BYTES);
+            int source = input.get(INT, 4 * Integer.BYTES), sink = input.get(INT, 5 * Integer.BYTES);
+            long inputOffsets = BinaryGraphFormat.HEADER_SIZE;
+            long inputTargets = inputOffsets + Integer.BYTES * (verticesCount + 1L);
+            long inputCapacities = inputTargets + (long) Integer.BYTES * edgesCount;
+            if (verticesCount < 0 || edgesCount < 0 || channel.size() != inputCapacities + (long) Integer.BYTES * edgesCount) {
+                throw new IllegalArgumentException("Invalid input, binary graph file is truncated or corrupted.");
+            }
+
+            long arcsCount = 2L * edgesCount;
+            MemorySegment file = OffHeapGraph.CreateFile(outputFile, verticesCount, arcsCount, source, sink, arena);
+            long[] positions = OffHeapGraph.GetPositions(verticesCount, arcsCount);
+            MemorySegment offsets = file.asSlice(positions[0], positions[1] - positions[0]);
+            offsets.fill((byte) 0);
+
+            // counting arcs per node, the out degree from the input offsets and the in degree from the targets.
+            for (int u = 0; u < verticesCount; u++) {
+                int outDegree = input.get(INT, inputOffsets + Integer.BYTES * (u + 1L)) - input.get(INT, inputOffsets + Integer.BYTES * (long) u);
+                offsets.setAtIndex(LONG, u + 1L, offsets.getAtIndex(LONG, u + 1L) + outDegree);
+            }
+            for (long edge = 0; edge < edgesCount; edge++) {
+                int v = input.get(INT, inputTargets + Integer.BYTES * edge);
+                if (v < 0 || v >= verticesCount) {
+                    throw new IllegalArgumentException("Invalid input, binary graph file is truncated or corrupted.");
+                }
+                offsets.setAtIndex(LONG, v + 1L, offsets.getAtIndex(LONG, v + 1L) + 1);
+            }
+            for (int u = 0; u < verticesCount; u++) {
+                offsets.setAtIndex(LONG, u + 1L, offsets.getAtIndex(LONG, u + 1L) + offsets.getAtIndex(LONG, u));
+            }
+
+            MemorySegment nextArcs = arena.allocate((long) Long.BYTES * verticesCount, Long.BYTES);
+            MemorySegment.copy(offsets, 0, nextArcs, 0, nextArcs.byteSize());
+
+            for (int u = 0; u < verticesCount; u++) {
+                int end = input.get(INT, inputOffsets + Integer.BYTES * (u + 1L));
+                for (int edge = input.get(INT, inputOffsets + Integer.BYTES * (long) u); edge < end; edge++) {
+                    int v = input.get(INT, inputTargets + Integer.BYTES * (long) edge);
+                    long forward = nextArcs.getAtIndex(LONG, u), backward = nextArcs.getAtIndex(LONG, v);
+                    nextArcs.setAtIndex(LONG, u, forward + 1);
+                    nextArcs.setAtIndex(LONG, v, backward + 1);
+
+                    file.set(INT, positions[1] + Integer.BYTES * forward, v);
+                    file.set(LONG, positions[2] + Long.BYTES * forward, backward);
+                    file.set(LONG, positions[3] + Long.BYTES * forward, input.get(INT, inputCapacities + Integer.BYTES * (long) edge));
+
+                    file.set(INT, positions[1] + Integer.BYTES * backward, u);
+                    file.set(LONG, positions[2] + Long.BYTES * backward, forward);
+                    file.set(LONG, positions[3] + Long.BYTES * backward, 0L);
+                }
+            }
+            file.force();
+        }
+    }
+
+    @Override
+    public int getVerticesCount() {
+        return this.verticesCount;
+    }
+
+    @Override
+    public long getArcsCount() {
+        return this.arcsCount;
+    }
+
+    public int getSource() {
+        return this.source;
+    }
+
+    public int getSink() {
+        return this.sink;
+    }
+
+    @Override
+    public long getFirstArc(int node) {
+        return this.offsets.getAtIndex(LONG, node);
+    }
+
+    @Override
+    public int getTarget(long arc) {
+        return this.targets.getAtIndex(INT, arc);
+    }
+
+    @Override
+    public long getReverseArc(long arc) {
+        return this.reverseArcs.getAtIndex(LONG, arc);
+    }
+
+    @Override
+    public long getCapacity(long arc) {
+        return this.capacities.getAtIndex(LONG, arc);
+    }
+
+    /**
+     * Creates the residual capacities off-heap, released with the graph.
+     * @return
+     */
+    @Override
+    public ResidualCapacities createResidualCapacities() {
+        MemorySegment residualCapacities = this.arena.allocate(this.capacities.byteSize(), Long.BYTES);
+        MemorySegment.copy(this.capacities, 0, residualCapacities, 0, this.capacities.byteSize());
+        return new ResidualCapacities() {
+            @Override
+            public long get(long arc) {
+                return residualCapacities.getAtIndex(LONG, arc);
+            }
+
+            @Override
+            public void set(long arc, long capacity) {
+                residualCapacities.setAtIndex(LONG, arc, capacity);
+            }
+        };
+    }
+
+    /**
+     * Unmaps the file and frees the residual capacities.
+     */
+    @Override
+    public void close() {
+        this.arena.close();
+    }
+
+    /**
+     * Gets the positions of the offsets, targets, reverse arcs and capacities in the file, then its size.
+     * @param verticesCount
+     * @param arcsCount
+     * @return
+     */
+    private static long[] GetPositions(int verticesCount, long arcsCount) {
+        long offsets = HEADER_SIZE;
+        long targets = offsets + Long.BYTES * (verticesCount + 1L);
+        long reverseArcs = (targets + Integer.BYTES * arcsCount + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+        long capacities = reverseArcs + Long.BYTES * arcsCount;
+        return new long[] { offsets, targets, reverseArcs, capacities, capacities + Long.BYTES * arcsCount };
+    }
+
+    /**
+     * Creates the output file of the graph, mapped read-write, with its header written.
+     * @param outputFile
+     * @param verticesCount
+     * @param arcsCount
+     * @param source
+     * @param sink
+     * @param arena
+     * @return
+     * @throws IOException
+     */
+    private static MemorySegment CreateFile(Path outputFile, int verticesCount, long arcsCount, int source, int sink, Arena arena) throws IOException {
+        try (FileChannel channel = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_WRITE, 0, OffHeapGraph.GetPositions(verticesCount, arcsCount)[4], arena);
+            file.set(INT, 0, MAGIC);
+            file.set(INT, Integer.BYTES, VERSION);
+            file.set(INT, 2 * Integer.BYTES, verticesCount);
+            file.set(INT, 3 * Integer.BYTES, source);
+            file.set(INT, 4 * Integer.BYTES, sink);
+            file.set(INT, 5 * Integer.BYTES, 0);
+            file.set(LONG, 6 * Integer.BYTES, arcsCount);
+            return file;
+        }
+    }
+}
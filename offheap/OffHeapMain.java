@@ -0,0 +1,134 @@
+package networkflow;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import networkflow.algorithms.BreadthFirstSearch;
+import networkflow.algorithms.BreadthFirstSearchWorkspace;
+import networkflow.algorithms.maxflow.MaxFlowEngine;
+import networkflow.core.BinaryGraphFormat;
+import networkflow.core.FlowGraph;
+import networkflow.core.OffHeapGraph;
+import networkflow.utils.TraceLog;
+
+/**
+ * Entrance class for the off-heap graphs, kept apart from Main since the Foreign Function & Memory API
+ * needs JDK 22, or JDK 21 with --enable-preview. Compiled separately, against the classes of the main tree:
+ * javac --release 21 --enable-preview -cp {classes} -d {classes} offheap/*.java
+ *
+ */
+public class OffHeapMain
+{
+    private static final String BFS = "-b",
+                                MAXFLOW = "-f",
+                                OFFHEAP_GRAPH = "-o";
+
+    public static void main( String[] args )
+    {
+        if (args.length < 2) {
+            System.out.println("Invalid arguments: Use {program} -option input_offheap_file");
+            return;
+        }
+        try
+        {
+            Instant starts, ends;
+            switch (args[0]) {
+                case BFS:
+                        if (args.length != 4) {
+                            System.out.println("Invalid arguments: Use {program} -b input_offheap_file source_node destination_node");
+                            return;
+                        }
+                        int source = Integer.parseInt(args[2]);
+                        int sink = Integer.parseInt(args[3]);
+                        boolean hasReachablePath;
+                        Integer[] nodesInShortestPath = null;
+
+                        // mapped, not loaded, the arcs and their capacities are read off-heap.
+                        try (OffHeapGraph offHeapGraphForBFS = OffHeapGraph.Map(Paths.get(args[1]))) {
+                            if (source < 0 || source >= offHeapGraphForBFS.getVerticesCount() || sink < 0 || sink >= offHeapGraphForBFS.getVerticesCount()) {
+                                System.out.println("Invalid arguments: source and destination nodes must be between 0 and " + (offHeapGraphForBFS.getVerticesCount() - 1));
+                                return;
+                            }
+                            long[] offHeapPredecessorArcs = new long[offHeapGraphForBFS.getVerticesCount()];
+                            starts = Instant.now();
+                            hasReachablePath = BreadthFirstSearch.Run(offHeapGraphForBFS, source, sink, offHeapGraphForBFS.getCapacities(),
+                                new BreadthFirstSearchWorkspace(offHeapGraphForBFS.getVerticesCount()), offHeapPredecessorArcs);
+                            ends = Instant.now();
+                            if (hasReachablePath) {
+                                nodesInShortestPath = Main.TraceBFSTraversalPath(offHeapGraphForBFS, offHeapPredecessorArcs, source, sink);
+                            }
+                        }
+                        TraceLog.Flush();
+
+                        if (hasReachablePath) {
+                            String formattedShortestPath = Arrays.stream(nodesInShortestPath)
+                                                                 .map(String::valueOf)
+                                                                 .collect(Collectors.joining(", "));
+                            System.out.println("Shortest path: " + formattedShortestPath);
+                        } else {
+                            System.out.println("Oops! sink cannot be reached from source.");
+                        }
+
+                        System.out.println("Duration (in seconds): " + Duration.between(starts, ends).toString().substring(2));
+                    break;
+
+                case MAXFLOW:
+                        if (args.length > 3) {
+                            System.out.println("Invalid arguments: Use {program} -f input_offheap_file [engine]");
+                            return;
+                        }
+                        // Picking the max-flow engine, edmonds-karp (ford-fulkerson with BFS) by default.
+                        MaxFlowEngine engine = args.length == 3 ? MaxFlowEngine.FromName(args[2]) : MaxFlowEngine.EDMONDS_KARP;
+                        if (!engine.supportsLongCapacities()) {
+                            System.out.println("Invalid arguments: off-heap graphs are solved with the 64-bit engines only, edmonds-karp or dinic.");
+                            return;
+                        }
+
+                        // mapped, not loaded, the arcs and the residual capacities stay off-heap.
+                        long maxFlow;
+                        try (OffHeapGraph offHeapGraph = OffHeapGraph.Map(Paths.get(args[1]))) {
+                            starts = Instant.now();
+                            maxFlow = engine.createLongSolver().solve(offHeapGraph, offHeapGraph.getSource(), offHeapGraph.getSink());
+                            ends = Instant.now();
+                        }
+                        TraceLog.Flush();
+
+                        System.out.println("Maximum flow: " + maxFlow);
+                        System.out.println("Duration (in seconds): " + Duration.between(starts, ends).toString().substring(2));
+                    break;
+
+                case OFFHEAP_GRAPH:
+                        if (args.length != 3) {
+                            System.out.println("Invalid arguments: Use {program} -o input_file output_offheap_file");
+                            return;
+                        }
+                        starts = Instant.now();
+                        if (BinaryGraphFormat.IsBinaryGraph(Paths.get(args[1]))) {
+                            // converted mapped file to mapped file, without loading the edges on the heap.
+                            OffHeapGraph.FromBinaryGraph(Paths.get(args[1]), Paths.get(args[2]));
+                        } else {
+                            FlowGraph graphForOffHeap = new FlowGraph();
+                            graphForOffHeap.buildGraph(Paths.get(args[1]));
+                            OffHeapGraph.Write(Paths.get(args[2]), graphForOffHeap.getLongResidualGraph(), graphForOffHeap.getSource(), graphForOffHeap.getSink());
+                        }
+                        ends = Instant.now();
+                        TraceLog.Flush();
+
+                        System.out.println("Off-heap graph written: " + args[2]);
+                        System.out.println("Duration (in seconds): " + Duration.between(starts, ends).toString().substring(2));
+                    break;
+
+                default:
+                        System.out.println("Invalid input, please follow the pattern: program -option inputfile");
+                    break;
+            }
+        }
+        catch (Exception ex) {
+            TraceLog.Flush();
+            ex.printStackTrace();
+        }
+    }
+}